@@ -0,0 +1,159 @@
+package benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dto.FriendsResponse;
+import dto.GroupsResponse;
+import dto.UserSearchResponse;
+import dto.VkTypeAdapters;
+import dto.WallResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecodeBenchmark {
+    @Param({"5000"})
+    public int items;
+
+    private Gson reflective;
+    private Gson adapters;
+    private String friendsJson;
+    private String groupsJson;
+    private String searchJson;
+    private String wallJson;
+
+    @Setup
+    public void setUp() {
+        reflective = new Gson();
+        adapters = VkTypeAdapters.registerAll(new GsonBuilder()).create();
+        Random random = new Random(42);
+        friendsJson = friends(random);
+        groupsJson = groups(random);
+        searchJson = search(random);
+        wallJson = wall(random);
+    }
+
+    @Benchmark
+    public FriendsResponse friendsReflective() {
+        return reflective.fromJson(friendsJson, FriendsResponse.class);
+    }
+
+    @Benchmark
+    public FriendsResponse friendsAdapter() {
+        return adapters.fromJson(friendsJson, FriendsResponse.class);
+    }
+
+    @Benchmark
+    public GroupsResponse groupsReflective() {
+        return reflective.fromJson(groupsJson, GroupsResponse.class);
+    }
+
+    @Benchmark
+    public GroupsResponse groupsAdapter() {
+        return adapters.fromJson(groupsJson, GroupsResponse.class);
+    }
+
+    @Benchmark
+    public UserSearchResponse searchReflective() {
+        return reflective.fromJson(searchJson, UserSearchResponse.class);
+    }
+
+    @Benchmark
+    public UserSearchResponse searchAdapter() {
+        return adapters.fromJson(searchJson, UserSearchResponse.class);
+    }
+
+    @Benchmark
+    public WallResponse wallReflective() {
+        return reflective.fromJson(wallJson, WallResponse.class);
+    }
+
+    @Benchmark
+    public WallResponse wallAdapter() {
+        return adapters.fromJson(wallJson, WallResponse.class);
+    }
+
+    private String friends(Random random) {
+        StringBuilder json = new StringBuilder("{\"response\":{\"count\":").append(items).append(",\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(1000 + i)
+                    .append(",\"first_name\":\"Имя").append(i)
+                    .append("\",\"last_name\":\"Фамилия").append(i)
+                    .append("\",\"can_access_closed\":true,\"is_closed\":").append(random.nextInt(4) == 0)
+                    .append(",\"track_code\":\"").append(Long.toHexString(random.nextLong())).append('"')
+                    .append(",\"city\":{\"id\":").append(random.nextInt(50))
+                    .append(",\"title\":\"Город").append(random.nextInt(50)).append("\"}")
+                    .append(",\"counters\":{\"friends\":").append(random.nextInt(1000)).append("}}");
+        }
+        return json.append("]}}").toString();
+    }
+
+    private String groups(Random random) {
+        StringBuilder json = new StringBuilder("{\"response\":{\"count\":").append(items).append(",\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(2000 + i)
+                    .append(",\"name\":\"Сообщество ").append(i)
+                    .append("\",\"screen_name\":\"club").append(2000 + i)
+                    .append("\",\"is_closed\":0,\"type\":\"").append(random.nextBoolean() ? "group" : "page")
+                    .append("\",\"members_count\":").append(random.nextInt(100000))
+                    .append(",\"photo_50\":\"https://example.com/").append(i).append(".jpg\"}");
+        }
+        return json.append("]}}").toString();
+    }
+
+    private String search(Random random) {
+        StringBuilder json = new StringBuilder("{\"response\":{\"count\":").append(items).append(",\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(3000 + i)
+                    .append(",\"first_name\":\"Имя").append(i)
+                    .append("\",\"last_name\":\"Фамилия").append(i)
+                    .append("\",\"can_access_closed\":").append(random.nextBoolean())
+                    .append(",\"is_closed\":").append(random.nextBoolean())
+                    .append(",\"city\":{\"id\":1,\"title\":\"Москва\"}}");
+        }
+        return json.append("]}}").toString();
+    }
+
+    private String wall(Random random) {
+        StringBuilder json = new StringBuilder("{\"response\":{\"count\":").append(items).append(",\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(items - i)
+                    .append(",\"owner_id\":1,\"from_id\":1,\"date\":").append(1700000000 - i * 3600)
+                    .append(",\"post_type\":\"post\",\"text\":\"Текст записи номер ").append(i)
+                    .append(" #тег\",\"comments\":{\"count\":").append(random.nextInt(100))
+                    .append(",\"can_post\":1},\"likes\":{\"count\":").append(random.nextInt(1000))
+                    .append(",\"user_likes\":0},\"reposts\":{\"count\":").append(random.nextInt(50))
+                    .append("},\"views\":{\"count\":").append(random.nextInt(10000)).append("}}");
+        }
+        return json.append("]}}").toString();
+    }
+}
@@ -0,0 +1,156 @@
+import ch.qos.logback.classic.Level;
+import loadtest.FakeVkServer;
+import loadtest.LoadTestConfig;
+import loadtest.StepResult;
+import loadtest.SyntheticPopulation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.ConfigReader;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class LoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        configureLogging();
+        int[] steps = args.length > 0 && !args[0].isEmpty() ? LoadTestConfig.parseSteps(args[0]) : LoadTestConfig.getSteps();
+
+        FakeVkServer server = new FakeVkServer(LoadTestConfig.getLatencyMs(), LoadTestConfig.getLatencyTailMs(),
+                LoadTestConfig.getLatencyTailRate(), LoadTestConfig.getErrorRate(), LoadTestConfig.getFloodRate());
+        server.start(LoadTestConfig.getServerThreads());
+
+        ConfigReader.setProperty("vk.api.url", server.getBaseUrl());
+        for (Map.Entry<String, String> override : LoadTestConfig.getOverrides().entrySet()) {
+            ConfigReader.setProperty(override.getKey(), override.getValue());
+        }
+        ConfigReader.setProperty("server.enabled", "false");
+        ConfigReader.setProperty("test.mode", "false");
+        ConfigReader.setProperty("search.city.id", String.valueOf(LoadTestConfig.getCityId()));
+
+        List<StepResult> results = new ArrayList<>();
+        try {
+            for (int targetUsers : steps) {
+                results.add(runStep(server, targetUsers));
+            }
+        } finally {
+            server.stop();
+        }
+
+        printReport(results);
+        exportReport(results);
+    }
+
+    private static StepResult runStep(FakeVkServer server, int targetUsers) {
+        int populationSize = (int) Math.ceil(targetUsers * LoadTestConfig.getPopulationFactor()
+                / (1 - LoadTestConfig.getClosedRate())) + 1;
+        logger.info("Шаг {}: генерация населения из {} пользователей", targetUsers, populationSize);
+        server.setPopulation(new SyntheticPopulation(populationSize, LoadTestConfig.getSeed(),
+                LoadTestConfig.getCityId(), LoadTestConfig.getCityTitle(), LoadTestConfig.getClosedRate(),
+                LoadTestConfig.getFriendsMin(), LoadTestConfig.getFriendsMax(), LoadTestConfig.getFriendsAlpha(),
+                LoadTestConfig.getGroupsCount(), LoadTestConfig.getGroupsPerUser(), LoadTestConfig.getPostsMean()));
+        ConfigReader.setProperty("full.users.count", String.valueOf(targetUsers));
+
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        server.resetCounters();
+
+        long startTime = System.nanoTime();
+        Main.main(new String[0]);
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+
+        StepResult result = new StepResult();
+        result.targetUsers = targetUsers;
+        result.populationSize = populationSize;
+        result.requests = server.getRequests();
+        result.injectedErrors = server.getInjectedErrors();
+        result.elapsedMs = elapsedMs;
+        result.requestsPerSecond = elapsedMs > 0 ? result.requests * 1000.0 / elapsedMs : 0;
+        result.peakHeapBytes = peakHeap();
+        result.gcCount = gcCount() - gcCountBefore;
+        result.gcTimeMs = gcTime() - gcTimeBefore;
+        logger.info("Шаг {}: {} запросов за {}ms ({} запросов/с), пик кучи {} МБ, GC {} раз / {}ms",
+                targetUsers, result.requests, elapsedMs, String.format("%.1f", result.requestsPerSecond),
+                result.peakHeapBytes / (1024 * 1024), result.gcCount, result.gcTimeMs);
+        return result;
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static void printReport(List<StepResult> results) {
+        logger.info("=== РЕЗУЛЬТАТЫ НАГРУЗОЧНОГО ТЕСТА ===");
+        logger.info(String.format("%10s %10s %10s %8s %12s %10s %10s %6s %8s",
+                "users", "population", "requests", "errors", "time_ms", "req/s", "heap_mb", "gc", "gc_ms"));
+        for (StepResult result : results) {
+            logger.info(String.format("%10d %10d %10d %8d %12d %10.1f %10d %6d %8d",
+                    result.targetUsers, result.populationSize, result.requests, result.injectedErrors,
+                    result.elapsedMs, result.requestsPerSecond, result.peakHeapBytes / (1024 * 1024),
+                    result.gcCount, result.gcTimeMs));
+        }
+    }
+
+    private static void exportReport(List<StepResult> results) throws IOException {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        String filename = String.format("load_test_%s.csv", timestamp);
+
+        try (Writer writer = new FileWriter(filename)) {
+            writer.write("target_users,population,requests,injected_errors,elapsed_ms,requests_per_second,"
+                    + "peak_heap_bytes,gc_count,gc_time_ms\n");
+            for (StepResult result : results) {
+                writer.write(result.targetUsers + "," + result.populationSize + "," + result.requests + ","
+                        + result.injectedErrors + "," + result.elapsedMs + ","
+                        + String.format(Locale.ROOT, "%.1f", result.requestsPerSecond) + "," + result.peakHeapBytes + ","
+                        + result.gcCount + "," + result.gcTimeMs + "\n");
+            }
+        }
+        logger.info("Результаты нагрузочного теста сохранены в {}", filename);
+    }
+
+    private static void configureLogging() {
+        ch.qos.logback.classic.Logger root =
+                (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.toLevel(LoadTestConfig.getLogLevel(), Level.WARN));
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(LoadTest.class)).setLevel(Level.INFO);
+    }
+}
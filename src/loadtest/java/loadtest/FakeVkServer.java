@@ -0,0 +1,422 @@
+package loadtest;
+
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class FakeVkServer {
+    private static final Logger logger = LoggerFactory.getLogger(FakeVkServer.class);
+    private static final int SEARCH_RESULT_CAP = 1000;
+    private static final Pattern EXECUTE_IDS = Pattern.compile("var ids=\\[([0-9,]*)]");
+    private static final Pattern EXECUTE_GROUP = Pattern.compile("\"group_id\":(\\d+)");
+    private static final Pattern EXECUTE_OFFSET = Pattern.compile("var o=(\\d+)");
+    private static final Pattern EXECUTE_PAGES = Pattern.compile("while\\(i<(\\d+)\\)");
+    private static final Pattern EXECUTE_COUNT = Pattern.compile("\"count\":(\\d+)");
+
+    private final long latencyMs;
+    private final long latencyTailMs;
+    private final double latencyTailRate;
+    private final double errorRate;
+    private final double floodRate;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private volatile SyntheticPopulation population;
+    private HttpServer httpServer;
+    private ExecutorService executor;
+
+    public FakeVkServer(long latencyMs, long latencyTailMs, double latencyTailRate, double errorRate, double floodRate) {
+        this.latencyMs = latencyMs;
+        this.latencyTailMs = latencyTailMs;
+        this.latencyTailRate = latencyTailRate;
+        this.errorRate = errorRate;
+        this.floodRate = floodRate;
+    }
+
+    public void start(int threads) throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/method/", this::handle);
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "fake-vk");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        logger.info("Локальная заглушка VK API запущена: {}", getBaseUrl());
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://" + httpServer.getAddress().getHostString() + ":" + httpServer.getAddress().getPort() + "/method/";
+    }
+
+    public void setPopulation(SyntheticPopulation population) {
+        this.population = population;
+    }
+
+    public void resetCounters() {
+        requests.set(0);
+        injectedErrors.set(0);
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String method = exchange.getRequestURI().getPath().substring("/method/".length());
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        String body;
+        try {
+            simulateLatency();
+            body = respond(method, params);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            body = error(10, "Internal server error");
+        } catch (RuntimeException e) {
+            logger.warn("Ошибка заглушки для {}: {}", method, e.toString());
+            body = error(100, "One of the parameters specified was missing or invalid: " + e.getMessage());
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs > 0 ? (long) (latencyMs * (0.5 + random.nextDouble())) : 0;
+        if (random.nextDouble() < latencyTailRate) {
+            delay += latencyTailMs;
+        }
+        if (delay > 0) {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        }
+    }
+
+    private String respond(String method, Map<String, String> params) throws IOException {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < floodRate) {
+            injectedErrors.incrementAndGet();
+            return error(9, "Flood control");
+        }
+        if (roll < floodRate + errorRate) {
+            injectedErrors.incrementAndGet();
+            return error(6, "Too many requests per second");
+        }
+
+        SyntheticPopulation population = this.population;
+        switch (method) {
+            case "users.search":
+                return usersSearch(population, params);
+            case "users.get":
+                return usersGet(population, params);
+            case "friends.get":
+                return friendsGet(population, params);
+            case "groups.get":
+                return groupsGet(population, params);
+            case "groups.getById":
+                return groupsGetById(population, params);
+            case "groups.getMembers":
+                return groupsGetMembers(population, params);
+            case "wall.get":
+                return wallGet(population, params);
+            case "execute":
+                return execute(population, params.getOrDefault("code", ""));
+            default:
+                return error(3, "Unknown method passed");
+        }
+    }
+
+    private String usersSearch(SyntheticPopulation population, Map<String, String> params) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject().name("response").beginObject();
+        if (intParam(params, "city", 0) != population.getCityId()) {
+            json.name("count").value(0).name("items").beginArray().endArray();
+        } else {
+            SyntheticPopulation.SearchSlice slice = population.search(intParam(params, "age_from", 0),
+                    intParam(params, "age_to", 0), intParam(params, "sex", 0), intParam(params, "birth_month", 0),
+                    intParam(params, "offset", 0), intParam(params, "count", 20), SEARCH_RESULT_CAP);
+            json.name("count").value(slice.total).name("items").beginArray();
+            for (int index : slice.items) {
+                writeUser(json, population, index, false);
+            }
+            json.endArray();
+        }
+        json.endObject().endObject().close();
+        return out.toString();
+    }
+
+    private String usersGet(SyntheticPopulation population, Map<String, String> params) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        String[] ids = params.getOrDefault("user_ids", "").split(",");
+        boolean counters = ids.length == 1 && params.getOrDefault("fields", "").contains("counters");
+        json.beginObject().name("response").beginArray();
+        for (String id : ids) {
+            int index = id.isEmpty() ? -1 : population.indexOf(Integer.parseInt(id));
+            if (index >= 0) {
+                writeUser(json, population, index, counters);
+            }
+        }
+        json.endArray().endObject().close();
+        return out.toString();
+    }
+
+    private String friendsGet(SyntheticPopulation population, Map<String, String> params) throws IOException {
+        int index = population.indexOf(intParam(params, "user_id", 0));
+        if (index < 0) {
+            return error(18, "User was deleted or banned");
+        }
+        if (population.isClosed(index)) {
+            return error(30, "This profile is private");
+        }
+
+        int[] friends = population.friends(index);
+        boolean extended = params.containsKey("fields");
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject().name("response").beginObject()
+                .name("count").value(friends.length)
+                .name("items").beginArray();
+        for (int friend : friends) {
+            if (extended) {
+                writeUser(json, population, friend, false);
+            } else {
+                json.value(population.userId(friend));
+            }
+        }
+        json.endArray().endObject().endObject().close();
+        return out.toString();
+    }
+
+    private String groupsGet(SyntheticPopulation population, Map<String, String> params) throws IOException {
+        int index = population.indexOf(intParam(params, "user_id", 0));
+        if (index < 0) {
+            return error(18, "User was deleted or banned");
+        }
+        if (population.isClosed(index)) {
+            return error(30, "This profile is private");
+        }
+
+        int[] groups = population.groups(index);
+        boolean extended = "1".equals(params.get("extended"));
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject().name("response").beginObject()
+                .name("count").value(groups.length)
+                .name("items").beginArray();
+        for (int group : groups) {
+            if (extended) {
+                writeGroup(json, population, group);
+            } else {
+                json.value(population.groupId(group));
+            }
+        }
+        json.endArray().endObject().endObject().close();
+        return out.toString();
+    }
+
+    private String groupsGetById(SyntheticPopulation population, Map<String, String> params) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject().name("response").beginObject().name("groups").beginArray();
+        for (String id : params.getOrDefault("group_ids", "").split(",")) {
+            int group = id.isEmpty() ? -1 : population.groupIndexOf(Integer.parseInt(id));
+            if (group >= 0) {
+                writeGroup(json, population, group);
+            }
+        }
+        json.endArray().endObject().endObject().close();
+        return out.toString();
+    }
+
+    private String groupsGetMembers(SyntheticPopulation population, Map<String, String> params) throws IOException {
+        int group = population.groupIndexOf(intParam(params, "group_id", 0));
+        if (group < 0) {
+            return error(100, "One of the parameters specified was missing or invalid: group_id is undefined");
+        }
+
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        int[] members = population.groupMembers(group);
+        json.beginObject().name("response").beginObject()
+                .name("count").value(members.length)
+                .name("items").beginArray();
+        writeMembers(json, population, members, intParam(params, "offset", 0), intParam(params, "count", 1000));
+        json.endArray().endObject().endObject().close();
+        return out.toString();
+    }
+
+    private String wallGet(SyntheticPopulation population, Map<String, String> params) throws IOException {
+        int ownerId = intParam(params, "owner_id", 0);
+        int index = population.indexOf(ownerId);
+        if (index < 0) {
+            return error(18, "User was deleted or banned");
+        }
+        if (population.isClosed(index)) {
+            return error(30, "This profile is private");
+        }
+
+        int total = population.postsCount(index);
+        int offset = intParam(params, "offset", 0);
+        int end = Math.min(total, offset + Math.min(100, intParam(params, "count", 20)));
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject().name("response").beginObject()
+                .name("count").value(total)
+                .name("items").beginArray();
+        for (int position = offset; position < end; position++) {
+            SyntheticPopulation.Post post = population.post(index, position);
+            json.beginObject()
+                    .name("id").value(post.id)
+                    .name("owner_id").value(ownerId)
+                    .name("from_id").value(ownerId)
+                    .name("date").value(post.date)
+                    .name("post_type").value("post")
+                    .name("text").value(post.text)
+                    .name("comments").beginObject().name("count").value(post.comments).endObject()
+                    .name("likes").beginObject().name("count").value(post.likes).endObject()
+                    .name("reposts").beginObject().name("count").value(post.reposts).endObject()
+                    .endObject();
+        }
+        json.endArray().endObject().endObject().close();
+        return out.toString();
+    }
+
+    private String execute(SyntheticPopulation population, String code) throws IOException {
+        Matcher ids = EXECUTE_IDS.matcher(code);
+        Matcher group = EXECUTE_GROUP.matcher(code);
+        boolean friendCounts = ids.find();
+        if (!friendCounts && !group.find()) {
+            return error(12, "Unable to compile code");
+        }
+
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject().name("response").beginArray();
+        if (friendCounts) {
+            for (String id : ids.group(1).split(",")) {
+                int index = id.isEmpty() ? -1 : population.indexOf(Integer.parseInt(id));
+                json.value(index < 0 || population.isClosed(index) ? -1 : population.friends(index).length);
+            }
+        } else {
+            int groupIndex = population.groupIndexOf(Integer.parseInt(group.group(1)));
+            int offset = find(EXECUTE_OFFSET, code, 0);
+            int pages = find(EXECUTE_PAGES, code, 1);
+            int pageSize = find(EXECUTE_COUNT, code, 1000);
+            if (groupIndex >= 0) {
+                writeMembers(json, population, population.groupMembers(groupIndex), offset, pages * pageSize);
+            }
+        }
+        json.endArray().endObject().close();
+        return out.toString();
+    }
+
+    private void writeUser(JsonWriter json, SyntheticPopulation population, int index, boolean counters) throws IOException {
+        boolean closed = population.isClosed(index);
+        json.beginObject()
+                .name("id").value(population.userId(index))
+                .name("first_name").value(population.firstName(index))
+                .name("last_name").value(population.lastName(index))
+                .name("can_access_closed").value(!closed)
+                .name("is_closed").value(closed)
+                .name("city").beginObject()
+                .name("id").value(population.getCityId())
+                .name("title").value(population.getCityTitle())
+                .endObject();
+        if (counters && !closed) {
+            json.name("counters").beginObject().name("friends").value(population.friends(index).length).endObject();
+        }
+        json.endObject();
+    }
+
+    private void writeGroup(JsonWriter json, SyntheticPopulation population, int group) throws IOException {
+        int id = population.groupId(group);
+        json.beginObject()
+                .name("id").value(id)
+                .name("name").value("Сообщество " + id)
+                .name("screen_name").value("club" + id)
+                .name("is_closed").value(0)
+                .name("type").value(group % 3 == 0 ? "page" : "group")
+                .name("members_count").value(population.groupMembers(group).length)
+                .endObject();
+    }
+
+    private void writeMembers(JsonWriter json, SyntheticPopulation population, int[] members, int offset, int count)
+            throws IOException {
+        int end = Math.min(members.length, offset + count);
+        for (int i = Math.max(0, offset); i < end; i++) {
+            json.value(population.userId(members[i]));
+        }
+    }
+
+    private static String error(int code, String message) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject().name("error").beginObject()
+                .name("error_code").value(code)
+                .name("error_msg").value(message)
+                .endObject().endObject().close();
+        return out.toString();
+    }
+
+    private static int find(Pattern pattern, String code, int defaultValue) {
+        Matcher matcher = pattern.matcher(code);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : defaultValue;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+}
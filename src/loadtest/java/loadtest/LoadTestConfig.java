@@ -0,0 +1,127 @@
+package loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+public class LoadTestConfig {
+    private static final String OVERRIDE_PREFIX = "override.";
+    private static final Properties properties = new Properties();
+
+    static {
+        try (InputStream input = LoadTestConfig.class.getClassLoader()
+                .getResourceAsStream("loadtest.properties")) {
+            if (input == null) {
+                throw new RuntimeException("Не найден loadtest.properties");
+            }
+            properties.load(new InputStreamReader(input, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка загрузки loadtest.properties", e);
+        }
+    }
+
+    private static String get(String key, String defaultValue) {
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
+    }
+
+    public static int[] getSteps() {
+        return parseSteps(get("loadtest.steps", "10,100,1000,10000,100000"));
+    }
+
+    public static int[] parseSteps(String value) {
+        String[] parts = value.split(",");
+        int[] steps = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            steps[i] = Integer.parseInt(parts[i].trim());
+        }
+        return steps;
+    }
+
+    public static long getSeed() {
+        return Long.parseLong(get("loadtest.seed", "42"));
+    }
+
+    public static int getCityId() {
+        return Integer.parseInt(get("loadtest.city.id", "73"));
+    }
+
+    public static String getCityTitle() {
+        return get("loadtest.city.title", "Красноярск");
+    }
+
+    public static double getPopulationFactor() {
+        return Double.parseDouble(get("loadtest.population.factor", "1.2"));
+    }
+
+    public static double getClosedRate() {
+        return Double.parseDouble(get("loadtest.closed.rate", "0.2"));
+    }
+
+    public static int getFriendsMin() {
+        return Integer.parseInt(get("loadtest.friends.min", "5"));
+    }
+
+    public static int getFriendsMax() {
+        return Integer.parseInt(get("loadtest.friends.max", "5000"));
+    }
+
+    public static double getFriendsAlpha() {
+        return Double.parseDouble(get("loadtest.friends.alpha", "1.5"));
+    }
+
+    public static int getGroupsCount() {
+        return Integer.parseInt(get("loadtest.groups.count", "2000"));
+    }
+
+    public static int getGroupsPerUser() {
+        return Integer.parseInt(get("loadtest.groups.per.user", "20"));
+    }
+
+    public static int getPostsMean() {
+        return Integer.parseInt(get("loadtest.posts.mean", "40"));
+    }
+
+    public static long getLatencyMs() {
+        return Long.parseLong(get("loadtest.latency.ms", "20"));
+    }
+
+    public static long getLatencyTailMs() {
+        return Long.parseLong(get("loadtest.latency.tail.ms", "300"));
+    }
+
+    public static double getLatencyTailRate() {
+        return Double.parseDouble(get("loadtest.latency.tail.rate", "0.02"));
+    }
+
+    public static double getErrorRate() {
+        return Double.parseDouble(get("loadtest.error.rate", "0.005"));
+    }
+
+    public static double getFloodRate() {
+        return Double.parseDouble(get("loadtest.flood.rate", "0.0005"));
+    }
+
+    public static int getServerThreads() {
+        return Integer.parseInt(get("loadtest.server.threads", "32"));
+    }
+
+    public static String getLogLevel() {
+        return get("loadtest.log.level", "WARN");
+    }
+
+    public static Map<String, String> getOverrides() {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (Properties source : new Properties[]{properties, System.getProperties()}) {
+            for (String key : source.stringPropertyNames()) {
+                if (key.startsWith(OVERRIDE_PREFIX)) {
+                    overrides.put(key.substring(OVERRIDE_PREFIX.length()), get(key, null));
+                }
+            }
+        }
+        return overrides;
+    }
+}
@@ -0,0 +1,13 @@
+package loadtest;
+
+public class StepResult {
+    public int targetUsers;
+    public int populationSize;
+    public long requests;
+    public long injectedErrors;
+    public long elapsedMs;
+    public double requestsPerSecond;
+    public long peakHeapBytes;
+    public long gcCount;
+    public long gcTimeMs;
+}
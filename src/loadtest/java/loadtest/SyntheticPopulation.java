@@ -0,0 +1,288 @@
+package loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class SyntheticPopulation {
+    public static final int BASE_USER_ID = 1_000_000;
+    public static final int BASE_GROUP_ID = 10_000;
+    public static final int MIN_AGE = 14;
+    public static final int MAX_AGE = 80;
+    private static final int BUCKETS = (MAX_AGE - MIN_AGE + 1) * 2 * 12;
+    private static final long POST_INTERVAL_SECONDS = 3600;
+
+    private static final String[] FIRST_NAMES = {"Александр", "Мария", "Дмитрий", "Анна", "Сергей", "Елена",
+            "Андрей", "Ольга", "Иван", "Наталья", "Максим", "Татьяна"};
+    private static final String[] LAST_NAMES = {"Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров",
+            "Соколов", "Михайлов", "Новиков", "Федоров", "Морозов", "Волков"};
+    private static final String[] WORDS = {"город", "красноярск", "енисей", "столбы", "погода", "выходные",
+            "работа", "друзья", "музыка", "концерт", "футбол", "хоккей", "лето", "зима", "отпуск", "фотографии",
+            "кофе", "книга", "фильм", "прогулка", "набережная", "праздник", "семья", "учеба", "спорт"};
+    private static final String[] HASHTAGS = {"#красноярск", "#енисей", "#столбы", "#сибирь", "#лето", "#спорт"};
+
+    private final int size;
+    private final long seed;
+    private final int cityId;
+    private final String cityTitle;
+    private final int groupsCount;
+    private final int postsMean;
+    private final long now;
+
+    private final byte[] age;
+    private final byte[] sex;
+    private final byte[] month;
+    private final boolean[] closed;
+    private final int[][] friends;
+    private final int[][] userGroups;
+    private final int[][] groupMembers;
+    private final int[] bySearchBucket;
+    private final int[] bucketStart;
+
+    public SyntheticPopulation(int size, long seed, int cityId, String cityTitle, double closedRate,
+                               int friendsMin, int friendsMax, double friendsAlpha,
+                               int groupsCount, int groupsPerUser, int postsMean) {
+        this.size = size;
+        this.seed = seed;
+        this.cityId = cityId;
+        this.cityTitle = cityTitle;
+        this.groupsCount = Math.max(1, groupsCount);
+        this.postsMean = postsMean;
+        this.now = System.currentTimeMillis() / 1000;
+
+        Random random = new Random(seed);
+        age = new byte[size];
+        sex = new byte[size];
+        month = new byte[size];
+        closed = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            age[i] = (byte) (MIN_AGE + Math.min(MAX_AGE - MIN_AGE, (int) (-Math.log(1 - random.nextDouble()) * 15)));
+            sex[i] = (byte) (1 + random.nextInt(2));
+            month[i] = (byte) (1 + random.nextInt(12));
+            closed[i] = random.nextDouble() < closedRate;
+        }
+
+        int[] counts = new int[BUCKETS + 1];
+        for (int i = 0; i < size; i++) {
+            counts[bucket(i) + 1]++;
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b + 1] += counts[b];
+        }
+        bucketStart = counts.clone();
+        bySearchBucket = new int[size];
+        for (int i = 0; i < size; i++) {
+            bySearchBucket[counts[bucket(i)]++] = i;
+        }
+
+        friends = buildFriendGraph(random, friendsMin, friendsMax, friendsAlpha);
+
+        userGroups = new int[size][];
+        int[] memberCounts = new int[this.groupsCount];
+        for (int i = 0; i < size; i++) {
+            int count = Math.min(this.groupsCount, (int) (-Math.log(1 - random.nextDouble()) * groupsPerUser));
+            int[] groups = new int[count];
+            for (int k = 0; k < count; k++) {
+                double u = random.nextDouble();
+                groups[k] = (int) (this.groupsCount * u * u * u);
+            }
+            userGroups[i] = distinct(groups);
+            for (int group : userGroups[i]) {
+                memberCounts[group]++;
+            }
+        }
+        groupMembers = new int[this.groupsCount][];
+        for (int g = 0; g < this.groupsCount; g++) {
+            groupMembers[g] = new int[memberCounts[g]];
+            memberCounts[g] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int group : userGroups[i]) {
+                groupMembers[group][memberCounts[group]++] = i;
+            }
+        }
+    }
+
+    private int[][] buildFriendGraph(Random random, int friendsMin, int friendsMax, double friendsAlpha) {
+        int[] degree = new int[size];
+        long stubs = 0;
+        for (int i = 0; i < size; i++) {
+            double pareto = friendsMin * Math.pow(1 - random.nextDouble(), -1 / friendsAlpha);
+            degree[i] = (int) Math.min(Math.min(friendsMax, size - 1), pareto);
+            stubs += degree[i];
+        }
+
+        int[] endpoints = new int[(int) (stubs & ~1L)];
+        int position = 0;
+        for (int i = 0; i < size && position < endpoints.length; i++) {
+            for (int k = 0; k < degree[i] && position < endpoints.length; k++) {
+                endpoints[position++] = i;
+            }
+        }
+        for (int i = endpoints.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = endpoints[i];
+            endpoints[i] = endpoints[j];
+            endpoints[j] = swap;
+        }
+
+        int[] filled = new int[size];
+        int[][] adjacency = new int[size][];
+        for (int i = 0; i < size; i++) {
+            adjacency[i] = new int[degree[i]];
+        }
+        for (int e = 0; e + 1 < endpoints.length; e += 2) {
+            int a = endpoints[e];
+            int b = endpoints[e + 1];
+            if (a != b && filled[a] < adjacency[a].length && filled[b] < adjacency[b].length) {
+                adjacency[a][filled[a]++] = b;
+                adjacency[b][filled[b]++] = a;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            adjacency[i] = distinct(Arrays.copyOf(adjacency[i], filled[i]));
+        }
+        return adjacency;
+    }
+
+    private static int[] distinct(int[] values) {
+        Arrays.sort(values);
+        int unique = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[unique++] = values[i];
+            }
+        }
+        return unique == values.length ? values : Arrays.copyOf(values, unique);
+    }
+
+    private int bucket(int index) {
+        return ((age[index] - MIN_AGE) * 2 + sex[index] - 1) * 12 + month[index] - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCityId() {
+        return cityId;
+    }
+
+    public String getCityTitle() {
+        return cityTitle;
+    }
+
+    public int indexOf(int userId) {
+        int index = userId - BASE_USER_ID;
+        return index >= 0 && index < size ? index : -1;
+    }
+
+    public int userId(int index) {
+        return BASE_USER_ID + index;
+    }
+
+    public String firstName(int index) {
+        return FIRST_NAMES[index % FIRST_NAMES.length];
+    }
+
+    public String lastName(int index) {
+        return LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    public boolean isClosed(int index) {
+        return closed[index];
+    }
+
+    public int[] friends(int index) {
+        return friends[index];
+    }
+
+    public int[] groups(int index) {
+        return userGroups[index];
+    }
+
+    public int groupsCount() {
+        return groupsCount;
+    }
+
+    public int groupIndexOf(int groupId) {
+        int index = groupId - BASE_GROUP_ID;
+        return index >= 0 && index < groupsCount ? index : -1;
+    }
+
+    public int groupId(int groupIndex) {
+        return BASE_GROUP_ID + groupIndex;
+    }
+
+    public int[] groupMembers(int groupIndex) {
+        return groupMembers[groupIndex];
+    }
+
+    public int postsCount(int index) {
+        return (int) (new Random(seed * 31 + index).nextDouble() * postsMean * 2);
+    }
+
+    public Post post(int index, int position) {
+        Random random = new Random(seed * 1_000_003L + (long) index * 10_007 + position);
+        Post post = new Post();
+        post.id = postsCount(index) - position;
+        post.date = now - (position + 1) * POST_INTERVAL_SECONDS * (1 + index % 48);
+        StringBuilder text = new StringBuilder();
+        int words = 3 + random.nextInt(15);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            text.append(random.nextInt(6) == 0 ? HASHTAGS[random.nextInt(HASHTAGS.length)]
+                    : WORDS[random.nextInt(WORDS.length)]);
+        }
+        post.text = text.toString();
+        post.likes = (int) (Math.pow(random.nextDouble(), 3) * 500);
+        post.comments = random.nextInt(20);
+        post.reposts = random.nextInt(5);
+        return post;
+    }
+
+    public SearchSlice search(int ageFrom, int ageTo, int sexFilter, int monthFilter, int offset, int count, int cap) {
+        int from = ageFrom > 0 ? Math.max(MIN_AGE, ageFrom) : MIN_AGE;
+        int to = ageTo > 0 ? Math.min(MAX_AGE, ageTo) : MAX_AGE;
+        int total = 0;
+        int limit = Math.max(0, Math.min(count, cap - offset));
+        int[] items = new int[limit];
+        int found = 0;
+        for (int a = from; a <= to; a++) {
+            for (int s = 1; s <= 2; s++) {
+                if (sexFilter != 0 && sexFilter != s) {
+                    continue;
+                }
+                for (int m = 1; m <= 12; m++) {
+                    if (monthFilter != 0 && monthFilter != m) {
+                        continue;
+                    }
+                    int b = ((a - MIN_AGE) * 2 + s - 1) * 12 + m - 1;
+                    for (int p = bucketStart[b] + Math.max(0, offset - total); p < bucketStart[b + 1] && found < limit; p++) {
+                        items[found++] = bySearchBucket[p];
+                    }
+                    total += bucketStart[b + 1] - bucketStart[b];
+                }
+            }
+        }
+        SearchSlice slice = new SearchSlice();
+        slice.total = total;
+        slice.items = found == items.length ? items : Arrays.copyOf(items, found);
+        return slice;
+    }
+
+    public static class SearchSlice {
+        public int total;
+        public int[] items;
+    }
+
+    public static class Post {
+        public int id;
+        public long date;
+        public String text;
+        public int likes;
+        public int comments;
+        public int reposts;
+    }
+}
@@ -1,27 +1,76 @@
+import pipeline.Pipeline;
+import pipeline.Sink;
+import progress.ProgressStage;
+import progress.ProgressTracker;
+import ranking.CandidateRanker;
+import ranking.RankedUser;
 import service.*;
+import search.SearchPlanner;
+import server.ApiServer;
+import server.CrawlJobManager;
+import server.StatisticsProvider;
+import sketch.FriendOverlapAggregator;
+import sketch.FriendOverlapReport;
+import spill.SpillingUserCollection;
+import store.CrawlStore;
+import text.TextAnalyzer;
+import text.TextReport;
+import timeline.WallHistory;
+import timeline.WallHistoryCrawler;
+import compact.UserColumns;
 import dto.UserSearchResponse;
 import dto.FriendsResponse;
 import dto.GroupsResponse;
 import dto.WallResponse;
 import util.ConfigReader;
+import util.IntHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 public class Main {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
+    private static final int TEST_MODE_CANDIDATES = 5;
 
     public static void main(String[] args) {
+        if ((args.length > 0 && "server".equals(args[0])) || ConfigReader.isServerEnabled()) {
+            runServer();
+            return;
+        }
+
+        CrawlStore crawlStore = null;
+        SpillingUserCollection spilledUsers = null;
+        ExportService exportService = null;
+        ProgressTracker progressTracker = null;
         try {
             logger.info("Запуск VK API Client");
             logger.info("Режим работы: {}", ConfigReader.isTestMode() ? "ТЕСТОВЫЙ" : "ПОЛНЫЙ");
 
             VkApiService vkService = new VkApiService();
+            if (ConfigReader.isStoreEnabled()) {
+                crawlStore = new CrawlStore(ConfigReader.getStoreDir(), ConfigReader.getStoreSegmentMaxBytes(),
+                        ConfigReader.getStoreCompactionIntervalMinutes());
+                vkService.setCrawlStore(crawlStore);
+            }
+            progressTracker = new ProgressTracker(vkService::getRequestCount,
+                    () -> vkService.getRateLimiter().getPermitsPerSecond(), ConfigReader.getProgressWindowSeconds());
+            if (ConfigReader.isProgressEnabled()) {
+                progressTracker.start(ConfigReader.getProgressReportSeconds());
+            }
             StatisticsService statisticsService = new StatisticsService(vkService);
-            ExportService exportService = new ExportService();
+            statisticsService.setProgressTracker(progressTracker);
+            exportService = new ExportService();
 
             int cityId = ConfigReader.getSearchCityId();
             String cityName = ConfigReader.getSearchCityName();
@@ -31,34 +80,164 @@ public class Main {
             logger.info("Поиск пользователей из {} (ID: {})", cityName, cityId);
             logger.info("Целевое количество пользователей: {}", targetUsersCount);
 
-            List<UserSearchResponse.User> allUsers = collectUsers(vkService, cityId, targetUsersCount, usersPerRequest);
+            FriendOverlapAggregator overlapAggregator = ConfigReader.isSketchEnabled() ?
+                    new FriendOverlapAggregator(ConfigReader.getSketchMinHashSize(), ConfigReader.getSketchLshBands(),
+                            ConfigReader.getSketchHllPrecision(), ConfigReader.getSketchSimilarityThreshold()) : null;
+
+            if (ConfigReader.isPipelineEnabled()) {
+                runPipeline(vkService, statisticsService, exportService, overlapAggregator, progressTracker,
+                        cityId, targetUsersCount, usersPerRequest);
+                if (overlapAggregator != null) {
+                    exportOverlap(exportService, overlapAggregator);
+                }
+                exportTerms(exportService, statisticsService.getTextAnalyzer());
+                exportService.close();
+                vkService.getScheduler().logStats();
+                logger.info("Программа завершена успешно");
+                return;
+            }
+
+            Collection<UserSearchResponse.User> allUsers;
+            if (ConfigReader.getMemoryBudgetBytes() > 0) {
+                spilledUsers = new SpillingUserCollection(Paths.get(ConfigReader.getSpillDir()),
+                        ConfigReader.getMemoryBudgetBytes());
+                allUsers = collectUsers(vkService, cityId, targetUsersCount, usersPerRequest, spilledUsers,
+                        progressTracker);
+                spilledUsers.finish();
+                logger.info("Уникальных открытых профилей после дедупликации: {}", spilledUsers.size());
+            } else {
+                allUsers = collectUsers(vkService, cityId, targetUsersCount, usersPerRequest,
+                        new UserColumns(targetUsersCount), progressTracker);
+            }
 
             if (allUsers.isEmpty()) {
                 logger.error("Не удалось собрать пользователей для анализа");
                 return;
             }
 
-            UserSearchResponse.User targetUser = findUserWithMostFriends(vkService, allUsers);
+            RankedUser targetUser = ConfigReader.isRankingBatched() ?
+                    rankCandidates(vkService, allUsers, overlapAggregator, progressTracker) :
+                    findUserWithMostFriends(vkService, allUsers, overlapAggregator, progressTracker);
 
             if (targetUser != null) {
-                processUserStatistics(vkService, statisticsService, exportService, targetUser);
+                processUserStatistics(vkService, statisticsService, exportService, targetUser.getUser(), null,
+                        targetUser.getFriends());
             } else {
                 logger.warn("Не найден подходящий пользователь с открытым профилем и друзьями");
             }
 
+            if (overlapAggregator != null) {
+                exportOverlap(exportService, overlapAggregator);
+            }
+            exportTerms(exportService, statisticsService.getTextAnalyzer());
+            exportService.close();
+            vkService.getScheduler().logStats();
+
             logger.info("Программа завершена успешно");
 
         } catch (Exception e) {
             logger.error("Критическая ошибка при выполнении программы", e);
+        } finally {
+            if (progressTracker != null) {
+                progressTracker.close();
+            }
+            if (exportService != null) {
+                try {
+                    exportService.close();
+                } catch (Exception e) {
+                    logger.error("Ошибка при записи файлов экспорта: {}", e.getMessage());
+                }
+            }
+            if (spilledUsers != null) {
+                try {
+                    spilledUsers.close();
+                } catch (Exception e) {
+                    logger.warn("Не удалось удалить временные файлы: {}", e.getMessage());
+                }
+            }
+            if (crawlStore != null) {
+                try {
+                    crawlStore.close();
+                } catch (Exception e) {
+                    logger.warn("Ошибка при закрытии хранилища: {}", e.getMessage());
+                }
+            }
         }
     }
 
-    private static List<UserSearchResponse.User> collectUsers(VkApiService vkService, int cityId,
-                                                              int targetUsersCount, int usersPerRequest) {
-        List<UserSearchResponse.User> allUsers = new ArrayList<>();
+    private static void runServer() {
+        try {
+            logger.info("Запуск VK API Client в режиме сервера");
+
+            VkApiService vkService = new VkApiService();
+            CrawlStore crawlStore = ConfigReader.isStoreEnabled() ?
+                    new CrawlStore(ConfigReader.getStoreDir(), ConfigReader.getStoreSegmentMaxBytes(),
+                            ConfigReader.getStoreCompactionIntervalMinutes()) : null;
+            vkService.setCrawlStore(crawlStore);
+            StatisticsService statisticsService = new StatisticsService(vkService);
+
+            ExecutorService httpExecutor = Executors.newFixedThreadPool(ConfigReader.getServerThreads());
+            ExecutorService statisticsExecutor = Executors.newFixedThreadPool(ConfigReader.getServerStatisticsThreads());
+            ExecutorService jobExecutor = Executors.newFixedThreadPool(ConfigReader.getServerJobThreads());
+
+            StatisticsProvider statisticsProvider = new StatisticsProvider(vkService, statisticsService,
+                    ConfigReader.getServerCacheMaxEntries(),
+                    TimeUnit.MINUTES.toMillis(ConfigReader.getServerCacheTtlMinutes()), statisticsExecutor);
+            SearchPlanner planner = new SearchPlanner(vkService, ConfigReader.getSearchUsersPerRequest(),
+                    ConfigReader.getRequestParallelism(), ConfigReader.getSearchPartitionAgeFrom(),
+                    ConfigReader.getSearchPartitionAgeTo());
+            CandidateRanker ranker = new CandidateRanker(vkService, ConfigReader.getRankingTopN(),
+                    ConfigReader.getRankingTimeBudgetMs(), ConfigReader.getRankingRequestBudget(),
+                    ConfigReader.getRequestParallelism());
+            CrawlJobManager jobManager = new CrawlJobManager(vkService, statisticsProvider, planner, ranker,
+                    jobExecutor, ConfigReader.getServerMaxJobs());
+
+            ApiServer server = new ApiServer(vkService, statisticsProvider, jobManager,
+                    ConfigReader.getSearchCityId(), ConfigReader.getTargetUsersCount(),
+                    TimeUnit.SECONDS.toMillis(ConfigReader.getServerRequestTimeoutSeconds()));
+            server.setCrawlStore(crawlStore);
+            server.start(ConfigReader.getServerPort(), httpExecutor);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                httpExecutor.shutdownNow();
+                statisticsExecutor.shutdownNow();
+                jobExecutor.shutdownNow();
+                if (crawlStore != null) {
+                    try {
+                        crawlStore.close();
+                    } catch (Exception e) {
+                        logger.warn("Ошибка при закрытии хранилища: {}", e.getMessage());
+                    }
+                }
+            }, "server-shutdown"));
+        } catch (Exception e) {
+            logger.error("Не удалось запустить сервер", e);
+        }
+    }
+
+    private static Collection<UserSearchResponse.User> collectUsers(VkApiService vkService, int cityId,
+                                                                    int targetUsersCount, int usersPerRequest,
+                                                                    Collection<UserSearchResponse.User> allUsers,
+                                                                    ProgressTracker progressTracker) {
+        if (ConfigReader.isSearchPartitionEnabled()) {
+            SearchPlanner planner = new SearchPlanner(vkService, usersPerRequest, ConfigReader.getRequestParallelism(),
+                    ConfigReader.getSearchPartitionAgeFrom(), ConfigReader.getSearchPartitionAgeTo());
+            planner.setProgressTracker(progressTracker);
+            try {
+                planner.collect(cityId, targetUsersCount, allUsers::add, !(allUsers instanceof SpillingUserCollection));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error("Сбор пользователей прерван");
+            }
+            return allUsers;
+        }
+
+        IntHashSet seenIds = allUsers instanceof SpillingUserCollection ? null : new IntHashSet(targetUsersCount);
         int offset = 0;
         int requestCount = 0;
         boolean shouldContinue = true;
+        ProgressStage progress = progressTracker.stage("поиск", targetUsersCount);
 
         while (allUsers.size() < targetUsersCount && shouldContinue) {
             try {
@@ -73,7 +252,7 @@ public class Main {
 
                 List<UserSearchResponse.User> openUsers = new ArrayList<>();
                 for (UserSearchResponse.User user : response.response.items) {
-                    if (user.is_closed != null && !user.is_closed) {
+                    if (user.is_closed != null && !user.is_closed && (seenIds == null || seenIds.add(user.id))) {
                         openUsers.add(user);
                     }
                 }
@@ -81,6 +260,8 @@ public class Main {
                 allUsers.addAll(openUsers);
                 offset += usersPerRequest;
                 requestCount++;
+                progress.limitTotal(response.response.count);
+                progress.advance(openUsers.size());
 
                 logger.info("Собрано пользователей: {}/{} (открытых в этом запросе: {})",
                         allUsers.size(), targetUsersCount, openUsers.size());
@@ -121,68 +302,256 @@ public class Main {
             }
         }
 
+        progress.finish();
         logger.info("Всего собрано открытых профилей: {}", allUsers.size());
         return allUsers;
     }
 
-    private static UserSearchResponse.User findUserWithMostFriends(VkApiService vkService,
-                                                                   List<UserSearchResponse.User> users) {
+    private static void runPipeline(VkApiService vkService, StatisticsService statisticsService,
+                                    ExportService exportService, FriendOverlapAggregator overlapAggregator,
+                                    ProgressTracker progressTracker, int cityId, int targetUsersCount,
+                                    int usersPerRequest) throws Exception {
+        logger.info("Запуск конвейера: поиск -> ранжирование -> статистика");
+        ProgressStage rankProgress = progressTracker.stage("ранжирование", targetUsersCount);
+
+        Pipeline pipeline = Pipeline.<UserSearchResponse.User>source("search",
+                        ConfigReader.getPipelineSearchQueueCapacity(), emitter -> {
+                    if (ConfigReader.isSearchPartitionEnabled()) {
+                        SearchPlanner planner = new SearchPlanner(vkService, usersPerRequest,
+                                ConfigReader.getRequestParallelism(), ConfigReader.getSearchPartitionAgeFrom(),
+                                ConfigReader.getSearchPartitionAgeTo());
+                        planner.setProgressTracker(progressTracker);
+                        planner.collect(cityId, targetUsersCount, emitter::emit);
+                    } else {
+                        for (UserSearchResponse.User user : collectUsers(vkService, cityId, targetUsersCount, usersPerRequest,
+                                new UserColumns(targetUsersCount), progressTracker)) {
+                            emitter.emit(user);
+                        }
+                    }
+                })
+                .<RankedUser>stage("rank", ConfigReader.getPipelineRankThreads(),
+                        ConfigReader.getPipelineRankQueueCapacity(), (user, emitter) -> {
+                    FriendsResponse friendsResponse = fetchFriends(vkService, user);
+                    rankProgress.advance(1);
+                    if (friendsResponse != null && friendsResponse.response != null) {
+                        if (overlapAggregator != null) {
+                            overlapAggregator.addUser(user.id, friendsResponse);
+                        }
+                        emitter.emit(new RankedUser(user, friendsResponse.response.count, friendsResponse));
+                    }
+                })
+                .sink("statistics", 1, new LeaderStatisticsSink(vkService, statisticsService, exportService,
+                        ConfigReader.isPipelineStatisticsEager()));
+
+        try {
+            pipeline.run();
+        } finally {
+            rankProgress.finish();
+        }
+    }
+
+    private static FriendsResponse fetchFriends(VkApiService vkService, UserSearchResponse.User user) {
+        try {
+            return vkService.getFriends(user.id);
+        } catch (VkApiException e) {
+            logger.warn("Не удалось получить друзей для пользователя {} (ошибка {}): {}",
+                    user.id, e.getErrorCode(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Не удалось получить друзей для пользователя {}: {}", user.id, e.getMessage());
+        }
+        return null;
+    }
+
+    private static class LeaderStatisticsSink implements Sink<RankedUser> {
+        private final VkApiService vkService;
+        private final StatisticsService statisticsService;
+        private final ExportService exportService;
+        private final boolean eager;
+        private RankedUser leader;
+        private UserStatistics leaderStatistics;
+
+        LeaderStatisticsSink(VkApiService vkService, StatisticsService statisticsService,
+                             ExportService exportService, boolean eager) {
+            this.vkService = vkService;
+            this.statisticsService = statisticsService;
+            this.exportService = exportService;
+            this.eager = eager;
+        }
+
+        @Override
+        public void accept(RankedUser rankedUser) throws Exception {
+            if (leader != null && rankedUser.getFriendsCount() <= leader.getFriendsCount()) {
+                return;
+            }
+
+            leader = rankedUser;
+            leaderStatistics = null;
+            UserSearchResponse.User user = rankedUser.getUser();
+            logger.info("Найден пользователь с {} друзьями: {} {}",
+                    rankedUser.getFriendsCount(), user.first_name, user.last_name);
+
+            if (eager) {
+                try {
+                    leaderStatistics = statisticsService.calculateStatistics(user.id,
+                            user.first_name + " " + user.last_name, rankedUser.getFriends());
+                } catch (VkApiException e) {
+                    logger.warn("Не удалось заранее рассчитать статистику пользователя {}: {}", user.id, e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (leader == null) {
+                logger.warn("Не найден подходящий пользователь с открытым профилем и друзьями");
+                return;
+            }
+
+            UserSearchResponse.User user = leader.getUser();
+            logger.info("Выбран пользователь: {} {} (ID: {}) с {} друзьями",
+                    user.first_name, user.last_name, user.id, leader.getFriendsCount());
+            processUserStatistics(vkService, statisticsService, exportService, user, leaderStatistics,
+                    leader.getFriends());
+        }
+    }
+
+    private static RankedUser rankCandidates(VkApiService vkService, Collection<UserSearchResponse.User> users,
+                                             FriendOverlapAggregator overlapAggregator,
+                                             ProgressTracker progressTracker) throws Exception {
+        CandidateRanker ranker = new CandidateRanker(vkService, ConfigReader.getRankingTopN(),
+                ConfigReader.getRankingTimeBudgetMs(), ConfigReader.getRankingRequestBudget(),
+                ConfigReader.getRequestParallelism());
+        ranker.setProgressTracker(progressTracker);
+        if (ConfigReader.isTestMode()) {
+            ranker.setMaxCandidates(TEST_MODE_CANDIDATES);
+        }
+        List<RankedUser> topUsers = ranker.rank(users);
+        if (topUsers.isEmpty()) {
+            logger.warn("Не удалось найти подходящего пользователя с друзьями");
+            return null;
+        }
+
+        logger.info("Топ-{} пользователей по количеству друзей:", topUsers.size());
+        int rank = 1;
+        for (RankedUser rankedUser : topUsers) {
+            UserSearchResponse.User user = rankedUser.getUser();
+            logger.info("  {}. {} {} (ID: {}) - {} друзей", rank++, user.first_name, user.last_name, user.id,
+                    rankedUser.getFriendsCount());
+        }
+
+        RankedUser leader = topUsers.get(0);
+        UserSearchResponse.User bestUser = leader.getUser();
+        FriendsResponse leaderFriends = fetchFriends(vkService, bestUser);
+        if (overlapAggregator != null) {
+            sampleOverlap(vkService, users, overlapAggregator, bestUser, leaderFriends);
+        }
+        logger.info("Выбран пользователь: {} {} (ID: {}) с {} друзьями",
+                bestUser.first_name, bestUser.last_name, bestUser.id, leader.getFriendsCount());
+        return new RankedUser(bestUser, leader.getFriendsCount(), leaderFriends);
+    }
+
+    private static void sampleOverlap(VkApiService vkService, Collection<UserSearchResponse.User> users,
+                                      FriendOverlapAggregator overlapAggregator, UserSearchResponse.User leader,
+                                      FriendsResponse leaderFriends) {
+        int sampleSize = ConfigReader.isTestMode() ?
+                Math.min(TEST_MODE_CANDIDATES, ConfigReader.getSketchSampleUsers()) : ConfigReader.getSketchSampleUsers();
+        overlapAggregator.addUser(leader.id, leaderFriends);
+        int sampled = 1;
+        Iterator<UserSearchResponse.User> iterator = users.iterator();
+        try {
+            while (iterator.hasNext() && sampled < sampleSize) {
+                UserSearchResponse.User user = iterator.next();
+                if (user.id.equals(leader.id)) {
+                    continue;
+                }
+                FriendsResponse friendsResponse = fetchFriends(vkService, user);
+                if (friendsResponse != null && friendsResponse.response != null) {
+                    overlapAggregator.addUser(user.id, friendsResponse);
+                    sampled++;
+                }
+            }
+        } finally {
+            SpillingUserCollection.closeIterator(iterator);
+        }
+        logger.info("Для оценки пересечения друзей загружены списки {} пользователей", sampled);
+    }
+
+    private static RankedUser findUserWithMostFriends(VkApiService vkService,
+                                                      Collection<UserSearchResponse.User> users,
+                                                      FriendOverlapAggregator overlapAggregator,
+                                                      ProgressTracker progressTracker) {
         UserSearchResponse.User bestUser = null;
+        FriendsResponse bestFriends = null;
         int maxFriends = -1;
         int processedUsers = 0;
         int successCount = 0;
 
         logger.info("Поиск пользователя с максимальным количеством друзей среди {} пользователей...", users.size());
+        ProgressStage progress = progressTracker.stage("ранжирование", users.size());
 
-        for (UserSearchResponse.User user : users) {
-            try {
-                if (processedUsers > 0) {
-                    TimeUnit.MILLISECONDS.sleep(1000); 
-                }
-
-                FriendsResponse friendsResponse = vkService.getFriends(user.id);
-                if (friendsResponse != null && friendsResponse.response != null) {
-                    int friendsCount = friendsResponse.response.count;
-                    successCount++;
-
-                    if (friendsCount > maxFriends) {
-                        maxFriends = friendsCount;
-                        bestUser = user;
-                        logger.info("Найден пользователь с {} друзьями: {} {}",
-                                friendsCount, user.first_name, user.last_name);
+        Iterator<UserSearchResponse.User> iterator = users.iterator();
+        try {
+            while (iterator.hasNext()) {
+                UserSearchResponse.User user = iterator.next();
+                progress.advance(1);
+                try {
+                    if (processedUsers > 0) {
+                        TimeUnit.MILLISECONDS.sleep(1000); 
                     }
-                }
-                processedUsers++;
 
-                if (ConfigReader.isTestMode() && processedUsers >= 5) {
-                    logger.info("Тестовый режим: ограничение в {} пользователей достигнуто", processedUsers);
-                    break;
-                }
+                    FriendsResponse friendsResponse = vkService.getFriends(user.id);
+                    if (friendsResponse != null && friendsResponse.response != null) {
+                        int friendsCount = friendsResponse.response.count;
+                        successCount++;
+                        if (overlapAggregator != null) {
+                            overlapAggregator.addUser(user.id, friendsResponse);
+                        }
+
+                        if (friendsCount > maxFriends) {
+                            maxFriends = friendsCount;
+                            bestUser = user;
+                            bestFriends = friendsResponse;
+                            logger.info("Найден пользователь с {} друзьями: {} {}",
+                                    friendsCount, user.first_name, user.last_name);
+                        }
+                    }
+                    processedUsers++;
 
-                if (successCount >= 20) {
-                    logger.info("Достигнуто ограничение в {} успешных запросов друзей", successCount);
-                    break;
-                }
+                    if (ConfigReader.isTestMode() && processedUsers >= TEST_MODE_CANDIDATES) {
+                        logger.info("Тестовый режим: ограничение в {} пользователей достигнуто", processedUsers);
+                        break;
+                    }
 
-            } catch (VkApiException e) {
-                if (e.getErrorCode() == 6 || e.getErrorCode() == 9) {
-                    logger.warn("Пропускаем пользователя {} из-за ограничений VK API (ошибка {}): {}",
-                            user.id, e.getErrorCode(), e.getMessage());
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(5000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
+                    if (successCount >= 20) {
+                        logger.info("Достигнуто ограничение в {} успешных запросов друзей", successCount);
                         break;
                     }
-                    continue;
-                } else {
+
+                } catch (VkApiException e) {
+                    if (e.getErrorCode() == 6 || e.getErrorCode() == 9) {
+                        logger.warn("Пропускаем пользователя {} из-за ограничений VK API (ошибка {}): {}",
+                                user.id, e.getErrorCode(), e.getMessage());
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(5000);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        continue;
+                    } else {
+                        logger.warn("Не удалось получить друзей для пользователя {}: {}", user.id, e.getMessage());
+                    }
+                } catch (Exception e) {
                     logger.warn("Не удалось получить друзей для пользователя {}: {}", user.id, e.getMessage());
                 }
-            } catch (Exception e) {
-                logger.warn("Не удалось получить друзей для пользователя {}: {}", user.id, e.getMessage());
             }
+        } finally {
+            SpillingUserCollection.closeIterator(iterator);
         }
 
+        progress.finish();
         if (bestUser != null) {
             logger.info("Выбран пользователь: {} {} (ID: {}) с {} друзьями",
                     bestUser.first_name, bestUser.last_name, bestUser.id, maxFriends);
@@ -190,16 +559,22 @@ public class Main {
             logger.warn("Не удалось найти подходящего пользователя с друзьями");
         }
 
-        return bestUser;
+        return bestUser != null ? new RankedUser(bestUser, maxFriends, bestFriends) : null;
     }
 
     private static void processUserStatistics(VkApiService vkService, StatisticsService statisticsService,
-                                              ExportService exportService, UserSearchResponse.User user) {
+                                              ExportService exportService, UserSearchResponse.User user,
+                                              UserStatistics precomputed, FriendsResponse knownFriends) {
         String userName = user.first_name + " " + user.last_name;
         logger.info("Обработка пользователя: {} (ID: {})", userName, user.id);
 
         try {
-            UserStatistics statistics = statisticsService.calculateStatistics(user.id, userName);
+            FriendsResponse friends = knownFriends;
+            if (friends == null && ConfigReader.isExportCsvEnabled()) {
+                friends = fetchFriends(vkService, user);
+            }
+            UserStatistics statistics = precomputed != null ? precomputed :
+                    statisticsService.calculateStatistics(user.id, userName, friends);
 
             printStatistics(statistics);
 
@@ -208,11 +583,10 @@ public class Main {
             }
 
             if (ConfigReader.isExportCsvEnabled()) {
-                try {
-                    FriendsResponse friendsResponse = vkService.getFriends(user.id);
-                    exportService.exportFriendsToCsv(friendsResponse, user.id);
-                } catch (Exception e) {
-                    logger.warn("Не удалось экспортировать друзей в CSV: {}", e.getMessage());
+                if (friends != null) {
+                    exportService.exportFriendsToCsv(friends, user.id);
+                } else {
+                    logger.warn("Не удалось экспортировать друзей в CSV: список друзей не получен");
                 }
 
                 try {
@@ -223,6 +597,10 @@ public class Main {
                 }
             }
 
+            if (ConfigReader.isWallHistoryEnabled()) {
+                exportWallHistory(vkService, exportService, user.id, statisticsService.getTextAnalyzer());
+            }
+
         } catch (VkApiException e) {
             if (e.getErrorCode() == 6 || e.getErrorCode() == 9) {
                 logger.error("Не удалось собрать статистику из-за ограничений VK API. Попробуйте позже.");
@@ -234,6 +612,47 @@ public class Main {
         }
     }
 
+    private static void exportWallHistory(VkApiService vkService, ExportService exportService, int userId,
+                                          TextAnalyzer textAnalyzer) {
+        int days = ConfigReader.getWallHistoryDays();
+        long cutoff = days > 0 ? Instant.now().minus(days, ChronoUnit.DAYS).getEpochSecond() : 0;
+        WallHistoryCrawler crawler = new WallHistoryCrawler(vkService, ConfigReader.getWallHistoryPageSize(),
+                ZoneId.systemDefault());
+        crawler.setTextAnalyzer(textAnalyzer);
+
+        try {
+            WallHistory history = crawler.crawl(userId, cutoff);
+            exportService.exportWallHistoryToCsv(history);
+        } catch (Exception e) {
+            logger.warn("Не удалось собрать историю стены: {}", e.getMessage());
+        }
+    }
+
+    private static void exportTerms(ExportService exportService, TextAnalyzer textAnalyzer) {
+        if (textAnalyzer == null) {
+            return;
+        }
+
+        TextReport report = textAnalyzer.buildReport(ConfigReader.getTextTopN());
+        logger.info("Проанализировано {} постов: {} слов, {} различных терминов",
+                report.getPosts(), report.getTokens(), report.getDistinctTerms());
+
+        if (ConfigReader.isExportJsonEnabled() && report.getPosts() > 0) {
+            exportService.exportTermsToJson(report);
+        }
+    }
+
+    private static void exportOverlap(ExportService exportService, FriendOverlapAggregator overlapAggregator) {
+        FriendOverlapReport report = overlapAggregator.buildReport();
+        logger.info("Оценка по {} пользователям: ~{} уникальных друзей, ~{} городов, {} похожих пар",
+                report.getUsers(), report.getDistinctFriends(), report.getDistinctCities(),
+                report.getSimilarPairs().size());
+
+        if (ConfigReader.isExportJsonEnabled() && report.getUsers() > 0) {
+            exportService.exportOverlapToJson(report);
+        }
+    }
+
     private static void printStatistics(UserStatistics statistics) {
         System.out.println("\n" + "=".repeat(80));
         System.out.println("СТАТИСТИКА ПОЛЬЗОВАТЕЛЯ: " + statistics.getUser().getName() +
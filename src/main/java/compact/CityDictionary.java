@@ -0,0 +1,46 @@
+package compact;
+
+import dto.FriendsResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CityDictionary {
+    private final Map<Integer, Integer> codesById = new HashMap<>();
+    private final List<FriendsResponse.Friend.City> cities = new ArrayList<>();
+
+    public int encode(Integer cityId, String title) {
+        if (cityId == null && title == null) {
+            return -1;
+        }
+        int key = cityId != null ? cityId : -(cities.size() + 1);
+        Integer code = codesById.get(key);
+        if (code == null) {
+            FriendsResponse.Friend.City city = new FriendsResponse.Friend.City();
+            city.id = cityId;
+            city.title = title;
+            code = cities.size();
+            codesById.put(key, code);
+            cities.add(city);
+        }
+        return code;
+    }
+
+    public FriendsResponse.Friend.City decode(int code) {
+        return code >= 0 ? cities.get(code) : null;
+    }
+
+    public Integer getCityId(int code) {
+        return code >= 0 ? cities.get(code).id : null;
+    }
+
+    public String getTitle(int code) {
+        return code >= 0 ? cities.get(code).title : null;
+    }
+
+    public int size() {
+        return cities.size();
+    }
+}
@@ -0,0 +1,319 @@
+package compact;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import util.JsonReaders;
+import util.SortedIntSet;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public final class CompactDecoder {
+    private CompactDecoder() {
+    }
+
+    public static FriendColumns decodeFriends(Reader source) throws IOException {
+        FriendColumns columns = new FriendColumns();
+        JsonReader reader = new JsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"response".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("count".equals(name)) {
+                    columns.setTotalCount(reader.nextInt());
+                } else if ("items".equals(name)) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readFriend(reader, columns);
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return columns;
+    }
+
+    public static int decodeIds(Reader source, SortedIntSet.Builder target) throws IOException {
+        int count = 0;
+        JsonReader reader = new JsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"response".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                count += readIds(reader, target);
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("count".equals(name)) {
+                    count = reader.nextInt();
+                } else if ("items".equals(name)) {
+                    readIds(reader, target);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return count;
+    }
+
+    private static int readIds(JsonReader reader, SortedIntSet.Builder target) throws IOException {
+        int[] buffer = new int[1024];
+        int length = 0;
+        int read = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.NUMBER) {
+                buffer[length++] = reader.nextInt();
+                read++;
+                if (length == buffer.length) {
+                    target.addAll(buffer, length);
+                    length = 0;
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        target.addAll(buffer, length);
+        return read;
+    }
+
+    public static GroupColumns decodeGroups(Reader source) throws IOException {
+        GroupColumns columns = new GroupColumns();
+        JsonReader reader = new JsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"response".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("count".equals(name)) {
+                    columns.setTotalCount(reader.nextInt());
+                } else if ("items".equals(name)) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readGroup(reader, columns);
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return columns;
+    }
+
+    public static UserColumns decodeUserSearch(Reader source) throws IOException {
+        UserColumns columns = new UserColumns();
+        JsonReader reader = new JsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"response".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("count".equals(name)) {
+                    columns.setTotalCount(reader.nextInt());
+                } else if ("items".equals(name)) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readUser(reader, columns);
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return columns;
+    }
+
+    private static void readFriend(JsonReader reader, FriendColumns columns) throws IOException {
+        int id = 0;
+        String firstName = null;
+        String lastName = null;
+        Boolean isClosed = null;
+        Boolean canAccessClosed = null;
+        String deactivated = null;
+        Integer cityId = null;
+        String cityTitle = null;
+        Integer friendsCount = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    id = reader.nextInt();
+                    break;
+                case "first_name":
+                    firstName = JsonReaders.nextString(reader);
+                    break;
+                case "last_name":
+                    lastName = JsonReaders.nextString(reader);
+                    break;
+                case "is_closed":
+                    isClosed = JsonReaders.nextBoolean(reader);
+                    break;
+                case "can_access_closed":
+                    canAccessClosed = JsonReaders.nextBoolean(reader);
+                    break;
+                case "deactivated":
+                    deactivated = JsonReaders.nextString(reader);
+                    break;
+                case "city":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String field = reader.nextName();
+                        if ("id".equals(field)) {
+                            cityId = JsonReaders.nextInteger(reader);
+                        } else if ("title".equals(field)) {
+                            cityTitle = JsonReaders.nextString(reader);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case "counters":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if ("friends".equals(reader.nextName())) {
+                            friendsCount = JsonReaders.nextInteger(reader);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        columns.appendRow(id, firstName, lastName, isClosed, canAccessClosed, deactivated,
+                cityId, cityTitle, friendsCount);
+    }
+
+    private static void readGroup(JsonReader reader, GroupColumns columns) throws IOException {
+        int id = 0;
+        String name = null;
+        String screenName = null;
+        Integer membersCount = null;
+        String type = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    id = reader.nextInt();
+                    break;
+                case "name":
+                    name = JsonReaders.nextString(reader);
+                    break;
+                case "screen_name":
+                    screenName = JsonReaders.nextString(reader);
+                    break;
+                case "members_count":
+                    membersCount = JsonReaders.nextInteger(reader);
+                    break;
+                case "type":
+                    type = JsonReaders.nextString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        columns.appendRow(id, name, screenName, membersCount, type);
+    }
+
+    private static void readUser(JsonReader reader, UserColumns columns) throws IOException {
+        int id = 0;
+        String firstName = null;
+        String lastName = null;
+        Boolean isClosed = null;
+        Boolean canAccessClosed = null;
+        Integer cityId = null;
+        String cityTitle = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    id = reader.nextInt();
+                    break;
+                case "first_name":
+                    firstName = JsonReaders.nextString(reader);
+                    break;
+                case "last_name":
+                    lastName = JsonReaders.nextString(reader);
+                    break;
+                case "is_closed":
+                    isClosed = JsonReaders.nextBoolean(reader);
+                    break;
+                case "can_access_closed":
+                    canAccessClosed = JsonReaders.nextBoolean(reader);
+                    break;
+                case "city":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String field = reader.nextName();
+                        if ("id".equals(field)) {
+                            cityId = JsonReaders.nextInteger(reader);
+                        } else if ("title".equals(field)) {
+                            cityTitle = JsonReaders.nextString(reader);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        columns.appendRow(id, firstName, lastName, isClosed, canAccessClosed, cityId, cityTitle);
+    }
+}
@@ -0,0 +1,150 @@
+package compact;
+
+import dto.FriendsResponse;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class FriendColumns extends AbstractList<FriendsResponse.Friend> {
+    private final StringDictionary names = new StringDictionary();
+    private final StringDictionary deactivationReasons = new StringDictionary();
+    private final CityDictionary cities = new CityDictionary();
+    private final BitSet closed = new BitSet();
+    private final BitSet closedKnown = new BitSet();
+    private final BitSet canAccessClosed = new BitSet();
+
+    private int[] ids;
+    private int[] firstNames;
+    private int[] lastNames;
+    private int[] cityCodes;
+    private int[] friendsCounts;
+    private int[] deactivated;
+    private int size;
+    private int totalCount;
+
+    public FriendColumns() {
+        this(16);
+    }
+
+    public FriendColumns(int capacity) {
+        capacity = Math.max(1, capacity);
+        ids = new int[capacity];
+        firstNames = new int[capacity];
+        lastNames = new int[capacity];
+        cityCodes = new int[capacity];
+        friendsCounts = new int[capacity];
+        deactivated = new int[capacity];
+    }
+
+    public int appendRow(int id, String firstName, String lastName, Boolean isClosed, Boolean canAccess,
+                         String deactivatedReason, Integer cityId, String cityTitle, Integer friendsCount) {
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = id;
+        firstNames[row] = names.encode(firstName);
+        lastNames[row] = names.encode(lastName);
+        cityCodes[row] = cities.encode(cityId, cityTitle);
+        friendsCounts[row] = friendsCount != null ? friendsCount : -1;
+        deactivated[row] = deactivationReasons.encode(deactivatedReason);
+        if (isClosed != null) {
+            closedKnown.set(row);
+            closed.set(row, isClosed);
+        }
+        canAccessClosed.set(row, Boolean.TRUE.equals(canAccess));
+        return row;
+    }
+
+    @Override
+    public boolean add(FriendsResponse.Friend friend) {
+        appendRow(friend.id, friend.first_name, friend.last_name, friend.is_closed, friend.can_access_closed,
+                friend.deactivated, friend.city != null ? friend.city.id : null,
+                friend.city != null ? friend.city.title : null,
+                friend.counters != null ? friend.counters.friends : null);
+        return true;
+    }
+
+    @Override
+    public FriendsResponse.Friend get(int row) {
+        checkRow(row);
+        FriendsResponse.Friend friend = new FriendsResponse.Friend();
+        friend.id = ids[row];
+        friend.first_name = names.decode(firstNames[row]);
+        friend.last_name = names.decode(lastNames[row]);
+        friend.is_closed = closedKnown.get(row) ? closed.get(row) : null;
+        friend.can_access_closed = canAccessClosed.get(row);
+        friend.deactivated = deactivationReasons.decode(deactivated[row]);
+        friend.city = cities.decode(cityCodes[row]);
+        if (friendsCounts[row] >= 0) {
+            friend.counters = new FriendsResponse.Friend.Counters();
+            friend.counters.friends = friendsCounts[row];
+        }
+        return friend;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public int getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public boolean isClosed(int row) {
+        checkRow(row);
+        return closed.get(row);
+    }
+
+    public boolean canAccessClosed(int row) {
+        checkRow(row);
+        return canAccessClosed.get(row);
+    }
+
+    public boolean isDeactivated(int row) {
+        checkRow(row);
+        return deactivated[row] >= 0;
+    }
+
+    public String getCityTitle(int row) {
+        checkRow(row);
+        return cities.getTitle(cityCodes[row]);
+    }
+
+    public int getFriendsCount(int row) {
+        checkRow(row);
+        return friendsCounts[row];
+    }
+
+    public void setFriendsCount(int row, int friendsCount) {
+        checkRow(row);
+        friendsCounts[row] = friendsCount;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Строка " + row + " вне диапазона 0.." + (size - 1));
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        cityCodes = Arrays.copyOf(cityCodes, capacity);
+        friendsCounts = Arrays.copyOf(friendsCounts, capacity);
+        deactivated = Arrays.copyOf(deactivated, capacity);
+    }
+}
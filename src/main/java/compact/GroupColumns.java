@@ -0,0 +1,100 @@
+package compact;
+
+import dto.GroupsResponse;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+public class GroupColumns extends AbstractList<GroupsResponse.Group> {
+    private final StringDictionary strings = new StringDictionary();
+
+    private int[] ids;
+    private int[] names;
+    private int[] screenNames;
+    private int[] types;
+    private int[] membersCounts;
+    private int size;
+    private int totalCount;
+
+    public GroupColumns() {
+        this(16);
+    }
+
+    public GroupColumns(int capacity) {
+        capacity = Math.max(1, capacity);
+        ids = new int[capacity];
+        names = new int[capacity];
+        screenNames = new int[capacity];
+        types = new int[capacity];
+        membersCounts = new int[capacity];
+    }
+
+    public int appendRow(int id, String name, String screenName, Integer membersCount, String type) {
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = id;
+        names[row] = strings.encode(name);
+        screenNames[row] = strings.encode(screenName);
+        types[row] = strings.encode(type);
+        membersCounts[row] = membersCount != null ? membersCount : -1;
+        return row;
+    }
+
+    @Override
+    public boolean add(GroupsResponse.Group group) {
+        appendRow(group.id, group.name, group.screen_name, group.members_count, group.type);
+        return true;
+    }
+
+    @Override
+    public GroupsResponse.Group get(int row) {
+        checkRow(row);
+        GroupsResponse.Group group = new GroupsResponse.Group();
+        group.id = ids[row];
+        group.name = strings.decode(names[row]);
+        group.screen_name = strings.decode(screenNames[row]);
+        group.type = strings.decode(types[row]);
+        group.members_count = membersCounts[row] >= 0 ? membersCounts[row] : null;
+        return group;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public int getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public int getMembersCount(int row) {
+        checkRow(row);
+        return membersCounts[row];
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Строка " + row + " вне диапазона 0.." + (size - 1));
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        screenNames = Arrays.copyOf(screenNames, capacity);
+        types = Arrays.copyOf(types, capacity);
+        membersCounts = Arrays.copyOf(membersCounts, capacity);
+    }
+}
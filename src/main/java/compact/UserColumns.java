@@ -0,0 +1,118 @@
+package compact;
+
+import dto.UserSearchResponse;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class UserColumns extends AbstractList<UserSearchResponse.User> {
+    private final StringDictionary names = new StringDictionary();
+    private final CityDictionary cities = new CityDictionary();
+    private final BitSet closed = new BitSet();
+    private final BitSet closedKnown = new BitSet();
+    private final BitSet canAccessClosed = new BitSet();
+
+    private int[] ids;
+    private int[] firstNames;
+    private int[] lastNames;
+    private int[] cityCodes;
+    private int size;
+    private int totalCount;
+
+    public UserColumns() {
+        this(16);
+    }
+
+    public UserColumns(int capacity) {
+        capacity = Math.max(1, capacity);
+        ids = new int[capacity];
+        firstNames = new int[capacity];
+        lastNames = new int[capacity];
+        cityCodes = new int[capacity];
+    }
+
+    public int appendRow(int id, String firstName, String lastName, Boolean isClosed, Boolean canAccess,
+                         Integer cityId, String cityTitle) {
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = id;
+        firstNames[row] = names.encode(firstName);
+        lastNames[row] = names.encode(lastName);
+        cityCodes[row] = cities.encode(cityId, cityTitle);
+        if (isClosed != null) {
+            closedKnown.set(row);
+            closed.set(row, isClosed);
+        }
+        canAccessClosed.set(row, Boolean.TRUE.equals(canAccess));
+        return row;
+    }
+
+    @Override
+    public boolean add(UserSearchResponse.User user) {
+        appendRow(user.id, user.first_name, user.last_name, user.is_closed, user.can_access_closed,
+                user.city != null ? user.city.id : null, user.city != null ? user.city.title : null);
+        return true;
+    }
+
+    @Override
+    public UserSearchResponse.User get(int row) {
+        checkRow(row);
+        UserSearchResponse.User user = new UserSearchResponse.User();
+        user.id = ids[row];
+        user.first_name = names.decode(firstNames[row]);
+        user.last_name = names.decode(lastNames[row]);
+        user.is_closed = closedKnown.get(row) ? closed.get(row) : null;
+        user.can_access_closed = canAccessClosed.get(row);
+        if (cityCodes[row] >= 0) {
+            user.city = new UserSearchResponse.User.City();
+            user.city.id = cities.getCityId(cityCodes[row]);
+            user.city.title = cities.getTitle(cityCodes[row]);
+        }
+        return user;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public int getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public boolean isClosed(int row) {
+        checkRow(row);
+        return closed.get(row);
+    }
+
+    public boolean isOpen(int row) {
+        checkRow(row);
+        return closedKnown.get(row) && !closed.get(row);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Строка " + row + " вне диапазона 0.." + (size - 1));
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        cityCodes = Arrays.copyOf(cityCodes, capacity);
+    }
+}
@@ -0,0 +1,10 @@
+package dto;
+
+public class ErrorResponse {
+    public Error error;
+
+    public static class Error {
+        public int error_code;
+        public String error_msg;
+    }
+}
@@ -0,0 +1,7 @@
+package dto;
+
+import java.util.List;
+
+public class ExecuteCountsResponse {
+    public List<Integer> response;
+}
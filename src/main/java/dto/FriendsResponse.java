@@ -15,6 +15,8 @@ public class FriendsResponse {
         public String first_name;
         public String last_name;
         public Boolean is_closed;
+        public Boolean can_access_closed;
+        public String deactivated;
         public City city;
         public Counters counters;
 
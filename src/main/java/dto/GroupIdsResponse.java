@@ -0,0 +1,12 @@
+package dto;
+
+import java.util.List;
+
+public class GroupIdsResponse {
+    public Response response;
+
+    public static class Response {
+        public Integer count;
+        public List<Integer> items;
+    }
+}
@@ -0,0 +1,11 @@
+package dto;
+
+import java.util.List;
+
+public class GroupsByIdResponse {
+    public Response response;
+
+    public static class Response {
+        public List<GroupsResponse.Group> groups;
+    }
+}
@@ -0,0 +1,7 @@
+package dto;
+
+import java.util.List;
+
+public class UsersResponse {
+    public List<FriendsResponse.Friend> response;
+}
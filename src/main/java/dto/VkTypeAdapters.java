@@ -0,0 +1,544 @@
+package dto;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import util.JsonReaders;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class VkTypeAdapters {
+    private VkTypeAdapters() {
+    }
+
+    public static GsonBuilder registerAll(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(FriendsResponse.class, FRIENDS_RESPONSE.nullSafe())
+                .registerTypeAdapter(FriendsResponse.Friend.class, FRIEND.nullSafe())
+                .registerTypeAdapter(GroupsResponse.class, GROUPS_RESPONSE.nullSafe())
+                .registerTypeAdapter(GroupsResponse.Group.class, GROUP.nullSafe())
+                .registerTypeAdapter(UserSearchResponse.class, USER_SEARCH_RESPONSE.nullSafe())
+                .registerTypeAdapter(UserSearchResponse.User.class, USER.nullSafe())
+                .registerTypeAdapter(WallResponse.class, WALL_RESPONSE.nullSafe())
+                .registerTypeAdapter(WallResponse.Post.class, POST.nullSafe())
+                .registerTypeAdapter(ErrorResponse.class, ERROR_RESPONSE.nullSafe());
+    }
+
+    static final TypeAdapter<FriendsResponse.Friend> FRIEND = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, FriendsResponse.Friend friend) throws IOException {
+            out.beginObject();
+            out.name("id").value(friend.id);
+            out.name("first_name").value(friend.first_name);
+            out.name("last_name").value(friend.last_name);
+            out.name("is_closed").value(friend.is_closed);
+            out.name("can_access_closed").value(friend.can_access_closed);
+            out.name("deactivated").value(friend.deactivated);
+            if (friend.city != null) {
+                out.name("city").beginObject();
+                out.name("id").value(friend.city.id);
+                out.name("title").value(friend.city.title);
+                out.endObject();
+            }
+            if (friend.counters != null) {
+                out.name("counters").beginObject();
+                out.name("friends").value(friend.counters.friends);
+                out.endObject();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public FriendsResponse.Friend read(JsonReader in) throws IOException {
+            FriendsResponse.Friend friend = new FriendsResponse.Friend();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        friend.id = JsonReaders.nextInteger(in);
+                        break;
+                    case "first_name":
+                        friend.first_name = JsonReaders.nextString(in);
+                        break;
+                    case "last_name":
+                        friend.last_name = JsonReaders.nextString(in);
+                        break;
+                    case "is_closed":
+                        friend.is_closed = JsonReaders.nextBoolean(in);
+                        break;
+                    case "can_access_closed":
+                        friend.can_access_closed = JsonReaders.nextBoolean(in);
+                        break;
+                    case "deactivated":
+                        friend.deactivated = JsonReaders.nextString(in);
+                        break;
+                    case "city":
+                        if (JsonReaders.skipNull(in)) {
+                            break;
+                        }
+                        friend.city = new FriendsResponse.Friend.City();
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            String name = in.nextName();
+                            if ("id".equals(name)) {
+                                friend.city.id = JsonReaders.nextInteger(in);
+                            } else if ("title".equals(name)) {
+                                friend.city.title = JsonReaders.nextString(in);
+                            } else {
+                                in.skipValue();
+                            }
+                        }
+                        in.endObject();
+                        break;
+                    case "counters":
+                        if (JsonReaders.skipNull(in)) {
+                            break;
+                        }
+                        friend.counters = new FriendsResponse.Friend.Counters();
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            if ("friends".equals(in.nextName())) {
+                                friend.counters.friends = JsonReaders.nextInteger(in);
+                            } else {
+                                in.skipValue();
+                            }
+                        }
+                        in.endObject();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return friend;
+        }
+    };
+
+    static final TypeAdapter<FriendsResponse> FRIENDS_RESPONSE = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, FriendsResponse value) throws IOException {
+            out.beginObject();
+            if (value.response != null) {
+                out.name("response");
+                writeList(out, value.response.count, value.response.items, FRIEND);
+            }
+            out.endObject();
+        }
+
+        @Override
+        public FriendsResponse read(JsonReader in) throws IOException {
+            FriendsResponse value = new FriendsResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!"response".equals(in.nextName())) {
+                    in.skipValue();
+                } else if (!JsonReaders.skipNull(in)) {
+                    value.response = new FriendsResponse.Response();
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String name = in.nextName();
+                        if ("count".equals(name)) {
+                            value.response.count = JsonReaders.nextInteger(in);
+                        } else if ("items".equals(name)) {
+                            value.response.items = readList(in, FRIEND);
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    };
+
+    static final TypeAdapter<GroupsResponse.Group> GROUP = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, GroupsResponse.Group group) throws IOException {
+            out.beginObject();
+            out.name("id").value(group.id);
+            out.name("name").value(group.name);
+            out.name("screen_name").value(group.screen_name);
+            out.name("members_count").value(group.members_count);
+            out.name("type").value(group.type);
+            out.endObject();
+        }
+
+        @Override
+        public GroupsResponse.Group read(JsonReader in) throws IOException {
+            GroupsResponse.Group group = new GroupsResponse.Group();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        group.id = JsonReaders.nextInteger(in);
+                        break;
+                    case "name":
+                        group.name = JsonReaders.nextString(in);
+                        break;
+                    case "screen_name":
+                        group.screen_name = JsonReaders.nextString(in);
+                        break;
+                    case "members_count":
+                        group.members_count = JsonReaders.nextInteger(in);
+                        break;
+                    case "type":
+                        group.type = JsonReaders.nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return group;
+        }
+    };
+
+    static final TypeAdapter<GroupsResponse> GROUPS_RESPONSE = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, GroupsResponse value) throws IOException {
+            out.beginObject();
+            if (value.response != null) {
+                out.name("response");
+                writeList(out, value.response.count, value.response.items, GROUP);
+            }
+            out.endObject();
+        }
+
+        @Override
+        public GroupsResponse read(JsonReader in) throws IOException {
+            GroupsResponse value = new GroupsResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!"response".equals(in.nextName())) {
+                    in.skipValue();
+                } else if (!JsonReaders.skipNull(in)) {
+                    value.response = new GroupsResponse.Response();
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String name = in.nextName();
+                        if ("count".equals(name)) {
+                            value.response.count = JsonReaders.nextInteger(in);
+                        } else if ("items".equals(name)) {
+                            value.response.items = readList(in, GROUP);
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    };
+
+    static final TypeAdapter<UserSearchResponse.User> USER = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, UserSearchResponse.User user) throws IOException {
+            out.beginObject();
+            out.name("id").value(user.id);
+            out.name("first_name").value(user.first_name);
+            out.name("last_name").value(user.last_name);
+            out.name("is_closed").value(user.is_closed);
+            out.name("can_access_closed").value(user.can_access_closed);
+            if (user.city != null) {
+                out.name("city").beginObject();
+                out.name("id").value(user.city.id);
+                out.name("title").value(user.city.title);
+                out.endObject();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public UserSearchResponse.User read(JsonReader in) throws IOException {
+            UserSearchResponse.User user = new UserSearchResponse.User();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        user.id = JsonReaders.nextInteger(in);
+                        break;
+                    case "first_name":
+                        user.first_name = JsonReaders.nextString(in);
+                        break;
+                    case "last_name":
+                        user.last_name = JsonReaders.nextString(in);
+                        break;
+                    case "is_closed":
+                        user.is_closed = JsonReaders.nextBoolean(in);
+                        break;
+                    case "can_access_closed":
+                        user.can_access_closed = JsonReaders.nextBoolean(in);
+                        break;
+                    case "city":
+                        if (JsonReaders.skipNull(in)) {
+                            break;
+                        }
+                        user.city = new UserSearchResponse.User.City();
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            String name = in.nextName();
+                            if ("id".equals(name)) {
+                                user.city.id = JsonReaders.nextInteger(in);
+                            } else if ("title".equals(name)) {
+                                user.city.title = JsonReaders.nextString(in);
+                            } else {
+                                in.skipValue();
+                            }
+                        }
+                        in.endObject();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return user;
+        }
+    };
+
+    static final TypeAdapter<UserSearchResponse> USER_SEARCH_RESPONSE = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, UserSearchResponse value) throws IOException {
+            out.beginObject();
+            if (value.response != null) {
+                out.name("response");
+                writeList(out, value.response.count, value.response.items, USER);
+            }
+            out.endObject();
+        }
+
+        @Override
+        public UserSearchResponse read(JsonReader in) throws IOException {
+            UserSearchResponse value = new UserSearchResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!"response".equals(in.nextName())) {
+                    in.skipValue();
+                } else if (!JsonReaders.skipNull(in)) {
+                    value.response = new UserSearchResponse.Response();
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String name = in.nextName();
+                        if ("count".equals(name)) {
+                            value.response.count = JsonReaders.nextInteger(in);
+                        } else if ("items".equals(name)) {
+                            value.response.items = readList(in, USER);
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    };
+
+    static final TypeAdapter<WallResponse.Post> POST = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, WallResponse.Post post) throws IOException {
+            out.beginObject();
+            out.name("id").value(post.id);
+            out.name("owner_id").value(post.owner_id);
+            out.name("date").value(post.date);
+            out.name("post_type").value(post.post_type);
+            out.name("text").value(post.text);
+            out.name("is_pinned").value(post.is_pinned);
+            if (post.comments != null) {
+                out.name("comments").beginObject().name("count").value(post.comments.count).endObject();
+            }
+            if (post.likes != null) {
+                out.name("likes").beginObject().name("count").value(post.likes.count).endObject();
+            }
+            if (post.reposts != null) {
+                out.name("reposts").beginObject().name("count").value(post.reposts.count).endObject();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public WallResponse.Post read(JsonReader in) throws IOException {
+            WallResponse.Post post = new WallResponse.Post();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        post.id = JsonReaders.nextInteger(in);
+                        break;
+                    case "owner_id":
+                        post.owner_id = JsonReaders.nextInteger(in);
+                        break;
+                    case "date":
+                        post.date = JsonReaders.nextInteger(in);
+                        break;
+                    case "post_type":
+                        post.post_type = JsonReaders.nextString(in);
+                        break;
+                    case "text":
+                        post.text = JsonReaders.nextString(in);
+                        break;
+                    case "is_pinned":
+                        post.is_pinned = JsonReaders.nextInteger(in);
+                        break;
+                    case "comments":
+                        Integer comments = readCount(in);
+                        if (comments != null) {
+                            post.comments = new WallResponse.Post.Comments();
+                            post.comments.count = comments;
+                        }
+                        break;
+                    case "likes":
+                        Integer likes = readCount(in);
+                        if (likes != null) {
+                            post.likes = new WallResponse.Post.Likes();
+                            post.likes.count = likes;
+                        }
+                        break;
+                    case "reposts":
+                        Integer reposts = readCount(in);
+                        if (reposts != null) {
+                            post.reposts = new WallResponse.Post.Reposts();
+                            post.reposts.count = reposts;
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return post;
+        }
+    };
+
+    static final TypeAdapter<WallResponse> WALL_RESPONSE = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, WallResponse value) throws IOException {
+            out.beginObject();
+            if (value.response != null) {
+                out.name("response");
+                writeList(out, value.response.count, value.response.items, POST);
+            }
+            out.endObject();
+        }
+
+        @Override
+        public WallResponse read(JsonReader in) throws IOException {
+            WallResponse value = new WallResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!"response".equals(in.nextName())) {
+                    in.skipValue();
+                } else if (!JsonReaders.skipNull(in)) {
+                    value.response = new WallResponse.Response();
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String name = in.nextName();
+                        if ("count".equals(name)) {
+                            value.response.count = JsonReaders.nextInteger(in);
+                        } else if ("items".equals(name)) {
+                            value.response.items = readList(in, POST);
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    };
+
+    static final TypeAdapter<ErrorResponse> ERROR_RESPONSE = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, ErrorResponse value) throws IOException {
+            out.beginObject();
+            if (value.error != null) {
+                out.name("error").beginObject();
+                out.name("error_code").value(value.error.error_code);
+                out.name("error_msg").value(value.error.error_msg);
+                out.endObject();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ErrorResponse read(JsonReader in) throws IOException {
+            ErrorResponse value = new ErrorResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!"error".equals(in.nextName())) {
+                    in.skipValue();
+                } else if (!JsonReaders.skipNull(in)) {
+                    value.error = new ErrorResponse.Error();
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String name = in.nextName();
+                        if ("error_code".equals(name)) {
+                            value.error.error_code = in.nextInt();
+                        } else if ("error_msg".equals(name)) {
+                            value.error.error_msg = JsonReaders.nextString(in);
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    };
+
+    private static <T> void writeList(JsonWriter out, Integer count, List<T> items,
+                                      TypeAdapter<T> itemAdapter) throws IOException {
+        out.beginObject();
+        out.name("count").value(count);
+        if (items != null) {
+            out.name("items").beginArray();
+            for (T item : items) {
+                itemAdapter.write(out, item);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    private static <T> List<T> readList(JsonReader in, TypeAdapter<T> itemAdapter) throws IOException {
+        if (JsonReaders.skipNull(in)) {
+            return null;
+        }
+        List<T> items = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            items.add(itemAdapter.read(in));
+        }
+        in.endArray();
+        return items;
+    }
+
+    private static Integer readCount(JsonReader in) throws IOException {
+        if (JsonReaders.skipNull(in)) {
+            return null;
+        }
+        Integer count = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("count".equals(in.nextName())) {
+                count = JsonReaders.nextInteger(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return count != null ? count : 0;
+    }
+}
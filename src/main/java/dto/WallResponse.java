@@ -13,8 +13,10 @@ public class WallResponse {
     public static class Post {
         public Integer id;
         public Integer owner_id;
+        public Integer date;
         public String post_type;
         public String text;
+        public Integer is_pinned;
         public Comments comments;
         public Likes likes;
         public Reposts reposts;
@@ -0,0 +1,275 @@
+package metrics;
+
+import dto.FriendsResponse;
+import dto.GroupsResponse;
+import dto.WallResponse;
+import text.TextAnalyzer;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public final class BuiltInMetrics {
+    public static final String FRIENDS_TOTAL = "friends.total";
+    public static final String FRIENDS_TOP_CITIES = "friends.topCities";
+    public static final String FRIENDS_CLOSED_PERCENTAGE = "friends.closedPercentage";
+    public static final String FRIENDS_AVG_FRIENDS_OF_FRIENDS = "friends.avgFriendsOfFriends";
+
+    public static final String GROUPS_TOTAL = "groups.total";
+    public static final String GROUPS_TOP = "groups.topGroups";
+    public static final String GROUPS_AVG_SIZE = "groups.avgSize";
+    public static final String GROUPS_MIN = "groups.minGroup";
+    public static final String GROUPS_MAX = "groups.maxGroup";
+    public static final String GROUPS_FRIEND_OVERLAP = "groups.friendOverlap";
+
+    public static final String POSTS_TOTAL = "posts.total";
+    public static final String POSTS_AVG_ACTIVITY = "posts.avgActivity";
+    public static final String POSTS_TOP = "posts.topPosts";
+    public static final String POSTS_AVG_TEXT_LENGTH = "posts.avgTextLength";
+    public static final String POSTS_TYPE_DISTRIBUTION = "posts.postTypeDistribution";
+    public static final String POSTS_TERMS = "posts.terms";
+
+    private BuiltInMetrics() {
+    }
+
+    public static void registerAll(MetricRegistry registry, int friendsSampleSize) {
+        registerFriendsMetrics(registry, friendsSampleSize);
+        registerGroupsMetrics(registry);
+        registerPostsMetrics(registry);
+    }
+
+    public static void registerTextMetrics(MetricRegistry registry, int minTermLength, int sketchCapacity,
+                                           int counterCapacity, int topN) {
+        registry.register(Metric.of(POSTS_TERMS, MetricSource.POSTS, () -> new MetricAccumulator<>() {
+            private final TextAnalyzer analyzer = new TextAnalyzer(minTermLength, sketchCapacity, counterCapacity);
+
+            @Override
+            public void accept(WallResponse.Post post) {
+                analyzer.accept(post.text);
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return analyzer.buildReport(topN);
+            }
+        }));
+    }
+
+    public static int getActivity(WallResponse.Post post) {
+        return (post.comments != null && post.comments.count != null ? post.comments.count : 0) +
+                (post.likes != null && post.likes.count != null ? post.likes.count : 0) +
+                (post.reposts != null && post.reposts.count != null ? post.reposts.count : 0);
+    }
+
+    private static void registerFriendsMetrics(MetricRegistry registry, int friendsSampleSize) {
+        registry.register(Metric.of(FRIENDS_TOTAL, MetricSource.FRIENDS, TotalAccumulator::new));
+
+        registry.register(Metric.of(FRIENDS_TOP_CITIES, MetricSource.FRIENDS, () -> new MetricAccumulator<>() {
+            private final Map<String, Long> cityCounts = new HashMap<>();
+
+            @Override
+            public void accept(FriendsResponse.Friend friend) {
+                if (friend.city != null) {
+                    cityCounts.merge(friend.city.title, 1L, Long::sum);
+                }
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return cityCounts.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                        .limit(5)
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
+                                (a, b) -> a, LinkedHashMap::new));
+            }
+        }));
+
+        registry.register(Metric.of(FRIENDS_CLOSED_PERCENTAGE, MetricSource.FRIENDS, () -> new MetricAccumulator<>() {
+            private long closedProfiles;
+
+            @Override
+            public void accept(FriendsResponse.Friend friend) {
+                if (friend.is_closed != null && friend.is_closed) {
+                    closedProfiles++;
+                }
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return totalCount > 0 ? (double) closedProfiles / totalCount * 100 : 0.0;
+            }
+        }));
+
+        registry.register(Metric.of(FRIENDS_AVG_FRIENDS_OF_FRIENDS, MetricSource.FRIENDS, () -> new MetricAccumulator<>() {
+            private int seen;
+            private long sum;
+            private int counted;
+
+            @Override
+            public void accept(FriendsResponse.Friend friend) {
+                if (seen++ >= friendsSampleSize) {
+                    return;
+                }
+                if (friend.counters != null && friend.counters.friends != null) {
+                    sum += friend.counters.friends;
+                    counted++;
+                }
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return counted > 0 ? (double) sum / counted : 0.0;
+            }
+        }));
+    }
+
+    private static void registerGroupsMetrics(MetricRegistry registry) {
+        registry.register(Metric.of(GROUPS_TOTAL, MetricSource.GROUPS, TotalAccumulator::new));
+
+        registry.register(Metric.of(GROUPS_TOP, MetricSource.GROUPS, () -> new MetricAccumulator<>() {
+            private final TopN<GroupsResponse.Group> topGroups = new TopN<>(10,
+                    Comparator.comparing((GroupsResponse.Group group) -> group.members_count != null ? group.members_count : 0,
+                            Comparator.reverseOrder()));
+
+            @Override
+            public void accept(GroupsResponse.Group group) {
+                topGroups.offer(group);
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return topGroups.toList();
+            }
+        }));
+
+        registry.register(Metric.of(GROUPS_AVG_SIZE, MetricSource.GROUPS, () -> new MetricAccumulator<>() {
+            private long sum;
+            private int counted;
+
+            @Override
+            public void accept(GroupsResponse.Group group) {
+                if (group.members_count != null) {
+                    sum += group.members_count;
+                    counted++;
+                }
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return counted > 0 ? (double) sum / counted : 0.0;
+            }
+        }));
+
+        registry.register(Metric.of(GROUPS_MIN, MetricSource.GROUPS, () -> new MetricAccumulator<>() {
+            private GroupsResponse.Group minGroup;
+
+            @Override
+            public void accept(GroupsResponse.Group group) {
+                if (group.members_count != null && (minGroup == null || group.members_count < minGroup.members_count)) {
+                    minGroup = group;
+                }
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return minGroup;
+            }
+        }));
+
+        registry.register(Metric.of(GROUPS_MAX, MetricSource.GROUPS, () -> new MetricAccumulator<>() {
+            private GroupsResponse.Group maxGroup;
+
+            @Override
+            public void accept(GroupsResponse.Group group) {
+                if (group.members_count != null && (maxGroup == null || group.members_count > maxGroup.members_count)) {
+                    maxGroup = group;
+                }
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return maxGroup;
+            }
+        }));
+    }
+
+    private static void registerPostsMetrics(MetricRegistry registry) {
+        registry.register(Metric.of(POSTS_TOTAL, MetricSource.POSTS, TotalAccumulator::new));
+
+        registry.register(Metric.of(POSTS_AVG_ACTIVITY, MetricSource.POSTS, () -> new MetricAccumulator<>() {
+            private long sum;
+            private int counted;
+
+            @Override
+            public void accept(WallResponse.Post post) {
+                sum += getActivity(post);
+                counted++;
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return counted > 0 ? (double) sum / counted : 0.0;
+            }
+        }));
+
+        registry.register(Metric.of(POSTS_TOP, MetricSource.POSTS, () -> new MetricAccumulator<>() {
+            private final TopN<WallResponse.Post> topPosts = new TopN<>(3,
+                    Comparator.comparingInt(BuiltInMetrics::getActivity).reversed());
+
+            @Override
+            public void accept(WallResponse.Post post) {
+                topPosts.offer(post);
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return topPosts.toList();
+            }
+        }));
+
+        registry.register(Metric.of(POSTS_AVG_TEXT_LENGTH, MetricSource.POSTS, () -> new MetricAccumulator<>() {
+            private long sum;
+            private int counted;
+
+            @Override
+            public void accept(WallResponse.Post post) {
+                if (post.text != null) {
+                    sum += post.text.length();
+                    counted++;
+                }
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return counted > 0 ? (double) sum / counted : 0.0;
+            }
+        }));
+
+        registry.register(Metric.of(POSTS_TYPE_DISTRIBUTION, MetricSource.POSTS, () -> new MetricAccumulator<>() {
+            private final Map<String, Long> distribution = new HashMap<>();
+
+            @Override
+            public void accept(WallResponse.Post post) {
+                distribution.merge(post.post_type != null ? post.post_type : "unknown", 1L, Long::sum);
+            }
+
+            @Override
+            public Object getResult(int totalCount) {
+                return distribution;
+            }
+        }));
+    }
+
+    private static class TotalAccumulator<T> implements MetricAccumulator<T> {
+        @Override
+        public void accept(T item) {
+        }
+
+        @Override
+        public Object getResult(int totalCount) {
+            return totalCount;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package metrics;
+
+import java.util.function.Supplier;
+
+public interface Metric<T> {
+    String getName();
+
+    MetricSource<T> getSource();
+
+    MetricAccumulator<T> createAccumulator();
+
+    static <T> Metric<T> of(String name, MetricSource<T> source, Supplier<MetricAccumulator<T>> accumulatorFactory) {
+        return new Metric<T>() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public MetricSource<T> getSource() {
+                return source;
+            }
+
+            @Override
+            public MetricAccumulator<T> createAccumulator() {
+                return accumulatorFactory.get();
+            }
+        };
+    }
+}
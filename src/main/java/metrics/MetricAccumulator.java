@@ -0,0 +1,7 @@
+package metrics;
+
+public interface MetricAccumulator<T> {
+    void accept(T item);
+
+    Object getResult(int totalCount);
+}
@@ -0,0 +1,87 @@
+package metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+public class MetricEngine {
+    private static final Logger logger = LoggerFactory.getLogger(MetricEngine.class);
+    private final MetricRegistry registry;
+    private final boolean parallel;
+    private final int parallelism;
+
+    public MetricEngine(MetricRegistry registry, boolean parallel, int parallelism) {
+        this.registry = registry;
+        this.parallel = parallel;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public <T> Map<String, Object> evaluate(MetricSource<T> source, List<T> items, int totalCount) throws Exception {
+        List<Metric<T>> metrics = registry.getMetrics(source);
+        Map<String, Object> results = new LinkedHashMap<>();
+        if (metrics.isEmpty()) {
+            return results;
+        }
+
+        long startTime = System.currentTimeMillis();
+        int groups = parallel ? Math.min(parallelism, metrics.size()) : 1;
+
+        if (groups == 1) {
+            results.putAll(evaluateFused(metrics, items, totalCount));
+        } else {
+            List<List<Metric<T>>> partitions = new ArrayList<>();
+            for (int i = 0; i < groups; i++) {
+                partitions.add(new ArrayList<>());
+            }
+            for (int i = 0; i < metrics.size(); i++) {
+                partitions.get(i % groups).add(metrics.get(i));
+            }
+
+            List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+            for (List<Metric<T>> partition : partitions) {
+                futures.add(CompletableFuture.supplyAsync(() -> evaluateFused(partition, items, totalCount)));
+            }
+
+            Map<String, Object> merged = new LinkedHashMap<>();
+            for (CompletableFuture<Map<String, Object>> future : futures) {
+                try {
+                    merged.putAll(future.get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+            for (Metric<T> metric : metrics) {
+                results.put(metric.getName(), merged.get(metric.getName()));
+            }
+        }
+
+        logger.debug("Рассчитано {} метрик по источнику {} ({} элементов, {}ms)",
+                metrics.size(), source, items.size(), System.currentTimeMillis() - startTime);
+        return results;
+    }
+
+    private <T> Map<String, Object> evaluateFused(List<Metric<T>> metrics, List<T> items, int totalCount) {
+        List<MetricAccumulator<T>> accumulators = new ArrayList<>(metrics.size());
+        for (Metric<T> metric : metrics) {
+            accumulators.add(metric.createAccumulator());
+        }
+
+        for (T item : items) {
+            for (MetricAccumulator<T> accumulator : accumulators) {
+                accumulator.accept(item);
+            }
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (int i = 0; i < metrics.size(); i++) {
+            results.put(metrics.get(i).getName(), accumulators.get(i).getResult(totalCount));
+        }
+        return results;
+    }
+}
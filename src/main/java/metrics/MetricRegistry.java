@@ -0,0 +1,37 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MetricRegistry {
+    private final Map<MetricSource<?>, List<Metric<?>>> metricsBySource = new LinkedHashMap<>();
+    private final Map<String, Metric<?>> metricsByName = new LinkedHashMap<>();
+
+    public synchronized MetricRegistry register(Metric<?> metric) {
+        if (metricsByName.containsKey(metric.getName())) {
+            throw new IllegalArgumentException("Метрика уже зарегистрирована: " + metric.getName());
+        }
+        metricsByName.put(metric.getName(), metric);
+        metricsBySource.computeIfAbsent(metric.getSource(), source -> new ArrayList<>()).add(metric);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized <T> List<Metric<T>> getMetrics(MetricSource<T> source) {
+        List<Metric<T>> result = new ArrayList<>();
+        for (Metric<?> metric : metricsBySource.getOrDefault(source, List.of())) {
+            result.add((Metric<T>) metric);
+        }
+        return result;
+    }
+
+    public synchronized boolean hasMetrics(MetricSource<?> source) {
+        return metricsBySource.containsKey(source);
+    }
+
+    public synchronized List<String> getMetricNames() {
+        return new ArrayList<>(metricsByName.keySet());
+    }
+}
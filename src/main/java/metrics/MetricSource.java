@@ -0,0 +1,26 @@
+package metrics;
+
+import dto.FriendsResponse;
+import dto.GroupsResponse;
+import dto.WallResponse;
+
+public final class MetricSource<T> {
+    public static final MetricSource<FriendsResponse.Friend> FRIENDS = new MetricSource<>("friends");
+    public static final MetricSource<GroupsResponse.Group> GROUPS = new MetricSource<>("groups");
+    public static final MetricSource<WallResponse.Post> POSTS = new MetricSource<>("posts");
+
+    private final String name;
+
+    private MetricSource(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,39 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class TopN<T> {
+    private final int limit;
+    private final Comparator<? super T> order;
+    private final List<T> items;
+
+    public TopN(int limit, Comparator<? super T> order) {
+        this.limit = limit;
+        this.order = order;
+        this.items = new ArrayList<>(limit + 1);
+    }
+
+    public void offer(T item) {
+        if (limit <= 0) {
+            return;
+        }
+        if (items.size() == limit && order.compare(item, items.get(limit - 1)) >= 0) {
+            return;
+        }
+
+        int position = items.size();
+        while (position > 0 && order.compare(item, items.get(position - 1)) < 0) {
+            position--;
+        }
+        items.add(position, item);
+        if (items.size() > limit) {
+            items.remove(limit);
+        }
+    }
+
+    public List<T> toList() {
+        return new ArrayList<>(items);
+    }
+}
@@ -0,0 +1,5 @@
+package pipeline;
+
+public interface Emitter<T> {
+    void emit(T item) throws InterruptedException;
+}
@@ -0,0 +1,177 @@
+package pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class Pipeline {
+    private static final Logger logger = LoggerFactory.getLogger(Pipeline.class);
+    private static final Object END = new Object();
+
+    private final List<Stage> stages = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicReference<PipelineException> failure = new AtomicReference<>();
+
+    private Pipeline() {
+    }
+
+    public static <T> Builder<T> source(String name, int queueCapacity, Source<T> source) {
+        Pipeline pipeline = new Pipeline();
+        BlockingQueue<Object> output = new ArrayBlockingQueue<>(queueCapacity);
+        pipeline.stages.add(new Stage(name, 1, null, output) {
+            @Override
+            void runWorker() throws Exception {
+                source.produce(item -> {
+                    output.put(item);
+                    processed.incrementAndGet();
+                });
+            }
+        });
+        return new Builder<>(pipeline, output);
+    }
+
+    public void run() throws PipelineException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        for (Stage stage : stages) {
+            for (int i = 0; i < stage.concurrency; i++) {
+                Thread thread = new Thread(() -> runStageWorker(stage), "pipeline-" + stage.name + "-" + i);
+                thread.setDaemon(true);
+                threads.add(thread);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            abort();
+            throw e;
+        }
+
+        for (Stage stage : stages) {
+            logger.info("Этап {}: обработано {} элементов", stage.name, stage.processed.get());
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        logger.info("Конвейер завершен за {}ms", System.currentTimeMillis() - startTime);
+    }
+
+    private void runStageWorker(Stage stage) {
+        try {
+            stage.runWorker();
+            if (stage.activeWorkers.decrementAndGet() == 0) {
+                stage.complete();
+                if (stage.output != null) {
+                    stage.output.put(END);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (failure.compareAndSet(null, new PipelineException(stage.name, e))) {
+                logger.error("Ошибка на этапе {}, конвейер останавливается: {}", stage.name, e.getMessage());
+            }
+            abort();
+        }
+    }
+
+    private void abort() {
+        for (Thread thread : threads) {
+            if (thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    public static class Builder<T> {
+        private final Pipeline pipeline;
+        private final BlockingQueue<Object> input;
+
+        private Builder(Pipeline pipeline, BlockingQueue<Object> input) {
+            this.pipeline = pipeline;
+            this.input = input;
+        }
+
+        public <R> Builder<R> stage(String name, int concurrency, int queueCapacity, StageFunction<T, R> function) {
+            BlockingQueue<Object> output = new ArrayBlockingQueue<>(queueCapacity);
+            pipeline.stages.add(new ConsumingStage<T>(name, concurrency, input, output) {
+                @Override
+                void process(T item) throws Exception {
+                    function.process(item, output::put);
+                }
+            });
+            return new Builder<>(pipeline, output);
+        }
+
+        public Pipeline sink(String name, int concurrency, Sink<T> sink) {
+            pipeline.stages.add(new ConsumingStage<T>(name, concurrency, input, null) {
+                @Override
+                void process(T item) throws Exception {
+                    sink.accept(item);
+                }
+
+                @Override
+                void complete() throws Exception {
+                    sink.onComplete();
+                }
+            });
+            return pipeline;
+        }
+    }
+
+    private abstract static class Stage {
+        final String name;
+        final int concurrency;
+        final BlockingQueue<Object> input;
+        final BlockingQueue<Object> output;
+        final AtomicInteger activeWorkers;
+        final AtomicLong processed = new AtomicLong();
+
+        Stage(String name, int concurrency, BlockingQueue<Object> input, BlockingQueue<Object> output) {
+            this.name = name;
+            this.concurrency = Math.max(1, concurrency);
+            this.input = input;
+            this.output = output;
+            this.activeWorkers = new AtomicInteger(this.concurrency);
+        }
+
+        abstract void runWorker() throws Exception;
+
+        void complete() throws Exception {
+        }
+    }
+
+    private abstract static class ConsumingStage<T> extends Stage {
+        ConsumingStage(String name, int concurrency, BlockingQueue<Object> input, BlockingQueue<Object> output) {
+            super(name, concurrency, input, output);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void runWorker() throws Exception {
+            while (true) {
+                Object item = input.take();
+                if (item == END) {
+                    input.put(END);
+                    return;
+                }
+                process((T) item);
+                processed.incrementAndGet();
+            }
+        }
+
+        abstract void process(T item) throws Exception;
+    }
+}
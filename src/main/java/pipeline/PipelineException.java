@@ -0,0 +1,14 @@
+package pipeline;
+
+public class PipelineException extends Exception {
+    private final String stageName;
+
+    public PipelineException(String stageName, Throwable cause) {
+        super("Ошибка на этапе " + stageName + ": " + cause.getMessage(), cause);
+        this.stageName = stageName;
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+}
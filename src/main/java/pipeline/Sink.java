@@ -0,0 +1,8 @@
+package pipeline;
+
+public interface Sink<T> {
+    void accept(T item) throws Exception;
+
+    default void onComplete() throws Exception {
+    }
+}
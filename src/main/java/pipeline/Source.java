@@ -0,0 +1,5 @@
+package pipeline;
+
+public interface Source<T> {
+    void produce(Emitter<T> emitter) throws Exception;
+}
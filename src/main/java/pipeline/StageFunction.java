@@ -0,0 +1,5 @@
+package pipeline;
+
+public interface StageFunction<I, O> {
+    void process(I item, Emitter<O> emitter) throws Exception;
+}
@@ -0,0 +1,91 @@
+package progress;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public class ProgressStage {
+    private final String name;
+    private final AtomicLong total;
+    private final AtomicLong done = new AtomicLong();
+    private final SlidingWindowRate rate;
+    private final LongSupplier requestCounter;
+    private final long requestsAtStart;
+    private final long startedAt = System.currentTimeMillis();
+    private volatile long finishedAt;
+    private volatile ProgressTracker tracker;
+
+    public ProgressStage(String name, long total) {
+        this(name, total, 30, () -> 0);
+    }
+
+    ProgressStage(String name, long total, int windowSeconds, LongSupplier requestCounter) {
+        this.name = name;
+        this.total = new AtomicLong(total);
+        this.rate = new SlidingWindowRate(windowSeconds);
+        this.requestCounter = requestCounter;
+        this.requestsAtStart = requestCounter.getAsLong();
+    }
+
+    void attach(ProgressTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    public void setTotal(long total) {
+        this.total.set(total);
+    }
+
+    public void limitTotal(long available) {
+        total.accumulateAndGet(available, Math::min);
+    }
+
+    public void advance(long units) {
+        if (units > 0) {
+            done.addAndGet(units);
+            rate.record(units, System.currentTimeMillis());
+        }
+    }
+
+    public void finish() {
+        if (finishedAt == 0) {
+            finishedAt = System.currentTimeMillis();
+            ProgressTracker owner = tracker;
+            if (owner != null) {
+                owner.onFinish(this);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getDone() {
+        return done.get();
+    }
+
+    public boolean isFinished() {
+        return finishedAt != 0;
+    }
+
+    public long getElapsedMs() {
+        return (finishedAt != 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    public long getRequests() {
+        return requestCounter.getAsLong() - requestsAtStart;
+    }
+
+    public double getRate(long nowMs) {
+        return rate.perSecond(nowMs);
+    }
+
+    public long getRemainingRequests() {
+        long remaining = Math.max(0, getTotal() - getDone());
+        long completed = getDone();
+        return completed > 0 ? (long) Math.ceil((double) remaining * getRequests() / completed) : -1;
+    }
+}
@@ -0,0 +1,116 @@
+package progress;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+public class ProgressTracker implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ProgressTracker.class);
+
+    private final LongSupplier requestCounter;
+    private final DoubleSupplier permitsPerSecond;
+    private final int windowSeconds;
+    private final List<ProgressStage> stages = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService reporter;
+    private long lastRequestCount;
+    private long lastReportAt = System.currentTimeMillis();
+
+    public ProgressTracker(LongSupplier requestCounter, DoubleSupplier permitsPerSecond, int windowSeconds) {
+        this.requestCounter = requestCounter;
+        this.permitsPerSecond = permitsPerSecond;
+        this.windowSeconds = Math.max(1, windowSeconds);
+        this.lastRequestCount = requestCounter.getAsLong();
+    }
+
+    public ProgressStage stage(String name, long total) {
+        ProgressStage stage = new ProgressStage(name, total, windowSeconds, requestCounter);
+        stage.attach(this);
+        stages.add(stage);
+        return stage;
+    }
+
+    public synchronized void start(long periodSeconds) {
+        if (reporter != null) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(this::report, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void report() {
+        long now = System.currentTimeMillis();
+        long requests = requestCounter.getAsLong();
+        double requestRate = (requests - lastRequestCount) * 1000.0 / Math.max(1, now - lastReportAt);
+        lastRequestCount = requests;
+        lastReportAt = now;
+
+        double budget = permitsPerSecond.getAsDouble();
+        for (ProgressStage stage : stages) {
+            if (stage.isFinished()) {
+                continue;
+            }
+            long total = stage.getTotal();
+            long done = stage.getDone();
+            double rate = stage.getRate(now);
+            long remainingRequests = stage.getRemainingRequests();
+            logger.info("Прогресс [{}]: {}/{} ({}), {} ед./с за {}с, {} запросов, осталось ~{} запросов, ETA {}",
+                    stage.getName(), done, total > 0 ? total : "?", total > 0 ? percent(done, total) : "?",
+                    format(rate), windowSeconds, stage.getRequests(),
+                    remainingRequests >= 0 ? remainingRequests : "?",
+                    formatEta(eta(total - done, rate, remainingRequests, budget)));
+        }
+        logger.info("Запросы к VK: {}/с при лимите {}/с, всего {}", format(requestRate), format(budget), requests);
+    }
+
+    void onFinish(ProgressStage stage) {
+        logger.info("Этап [{}] завершен: {} ед. за {}ms, {} запросов",
+                stage.getName(), stage.getDone(), stage.getElapsedMs(), stage.getRequests());
+        stages.remove(stage);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    private static long eta(long remainingUnits, double unitsPerSecond, long remainingRequests, double permitsPerSecond) {
+        if (remainingUnits <= 0) {
+            return 0;
+        }
+        double seconds = unitsPerSecond > 0 ? remainingUnits / unitsPerSecond : -1;
+        if (remainingRequests >= 0 && permitsPerSecond > 0) {
+            seconds = Math.max(seconds, remainingRequests / permitsPerSecond);
+        }
+        return seconds >= 0 ? (long) Math.ceil(seconds) : -1;
+    }
+
+    private static String formatEta(long seconds) {
+        if (seconds < 0) {
+            return "неизвестно";
+        }
+        return String.format("%d:%02d:%02d", seconds / 3600, (seconds / 60) % 60, seconds % 60);
+    }
+
+    private static String percent(long done, long total) {
+        return String.format(Locale.ROOT, "%.1f%%", 100.0 * Math.min(done, total) / total);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+}
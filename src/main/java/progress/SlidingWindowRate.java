@@ -0,0 +1,35 @@
+package progress;
+
+public class SlidingWindowRate {
+    private final long[] counts;
+    private final long[] seconds;
+    private final long startedAt;
+
+    public SlidingWindowRate(int windowSeconds) {
+        this.counts = new long[Math.max(1, windowSeconds)];
+        this.seconds = new long[counts.length];
+        this.startedAt = System.currentTimeMillis();
+    }
+
+    public synchronized void record(long amount, long nowMs) {
+        long second = nowMs / 1000;
+        int slot = (int) (second % counts.length);
+        if (seconds[slot] != second) {
+            seconds[slot] = second;
+            counts[slot] = 0;
+        }
+        counts[slot] += amount;
+    }
+
+    public synchronized double perSecond(long nowMs) {
+        long second = nowMs / 1000;
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (second - seconds[i] < counts.length) {
+                sum += counts[i];
+            }
+        }
+        double elapsedSeconds = Math.min(counts.length, Math.max(1.0, (nowMs - startedAt) / 1000.0));
+        return sum / elapsedSeconds;
+    }
+}
@@ -0,0 +1,121 @@
+package ranking;
+
+import dto.UserSearchResponse;
+import metrics.TopN;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import progress.ProgressStage;
+import progress.ProgressTracker;
+import service.RequestPriority;
+import service.RequestScheduler;
+import service.VkApiException;
+import service.VkApiService;
+import spill.SpillingUserCollection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class CandidateRanker {
+    private static final Logger logger = LoggerFactory.getLogger(CandidateRanker.class);
+    private static final int USERS_PER_REQUEST = 25;
+
+    private final VkApiService vkApiService;
+    private final int topN;
+    private final long timeBudgetMs;
+    private final long requestBudget;
+    private final int parallelism;
+    private int maxCandidates = Integer.MAX_VALUE;
+    private ProgressTracker progressTracker;
+
+    public CandidateRanker(VkApiService vkApiService, int topN, long timeBudgetMs, long requestBudget, int parallelism) {
+        this.vkApiService = vkApiService;
+        this.topN = topN;
+        this.timeBudgetMs = timeBudgetMs;
+        this.requestBudget = requestBudget;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public void setProgressTracker(ProgressTracker progressTracker) {
+        this.progressTracker = progressTracker;
+    }
+
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public List<RankedUser> rank(Collection<UserSearchResponse.User> candidates) throws Exception {
+        TopN<RankedUser> top = new TopN<>(topN,
+                Comparator.comparingInt(RankedUser::getFriendsCount).reversed());
+        long startTime = System.currentTimeMillis();
+        long requestsUsed = 0;
+        int processed = 0;
+        int ranked = 0;
+        int total = Math.min(candidates.size(), maxCandidates);
+        Iterator<UserSearchResponse.User> iterator = candidates.iterator();
+        ProgressStage progress = progressTracker != null ? progressTracker.stage("ранжирование", total) :
+                new ProgressStage("ранжирование", total);
+
+        logger.info("Ранжирование {} кандидатов по количеству друзей (пакетами по {})",
+                total, USERS_PER_REQUEST);
+
+        try {
+            while (iterator.hasNext() && processed < total) {
+                long elapsed = System.currentTimeMillis() - startTime;
+                if (timeBudgetMs > 0 && elapsed >= timeBudgetMs) {
+                    logger.info("Исчерпан лимит времени ранжирования ({}ms)", timeBudgetMs);
+                    break;
+                }
+                if (requestBudget > 0 && requestsUsed >= requestBudget) {
+                    logger.info("Исчерпан лимит запросов ранжирования ({})", requestBudget);
+                    break;
+                }
+
+                int batchRequests = requestBudget > 0 ?
+                        (int) Math.min(parallelism, requestBudget - requestsUsed) : parallelism;
+                List<UserSearchResponse.User> batch = new ArrayList<>(batchRequests * USERS_PER_REQUEST);
+                int batchLimit = Math.min(batchRequests * USERS_PER_REQUEST, total - processed);
+                while (iterator.hasNext() && batch.size() < batchLimit) {
+                    batch.add(iterator.next());
+                }
+                int batchEnd = processed + batch.size();
+
+                List<Integer> ids = new ArrayList<>(batch.size());
+                for (UserSearchResponse.User user : batch) {
+                    ids.add(user.id);
+                }
+                Map<Integer, Integer> counts;
+                requestsUsed += (ids.size() + USERS_PER_REQUEST - 1) / USERS_PER_REQUEST;
+                try {
+                    counts = RequestScheduler.call(RequestPriority.BULK, 0, () -> vkApiService.getFriendCounts(ids));
+                } catch (VkApiException e) {
+                    logger.warn("Пакет кандидатов {}-{} пропущен: ошибка VK API [{}] {}",
+                            processed, batchEnd, e.getErrorCode(), e.getMessage());
+                    counts = Map.of();
+                }
+
+                for (UserSearchResponse.User user : batch) {
+                    Integer count = counts.get(user.id);
+                    if (count != null) {
+                        top.offer(new RankedUser(user, count));
+                        ranked++;
+                    }
+                }
+                processed = batchEnd;
+                progress.advance(batch.size());
+            }
+        } finally {
+            SpillingUserCollection.closeIterator(iterator);
+        }
+        progress.finish();
+
+        List<RankedUser> result = top.toList();
+        logger.info("Ранжировано {}/{} кандидатов за {}ms и {} запросов, лидер: {}",
+                ranked, total, System.currentTimeMillis() - startTime, requestsUsed,
+                result.isEmpty() ? "нет" : result.get(0).getUser().id + " (" + result.get(0).getFriendsCount() + " друзей)");
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package ranking;
+
+import dto.FriendsResponse;
+import dto.UserSearchResponse;
+
+public class RankedUser {
+    private final UserSearchResponse.User user;
+    private final int friendsCount;
+    private final FriendsResponse friends;
+
+    public RankedUser(UserSearchResponse.User user, int friendsCount) {
+        this(user, friendsCount, null);
+    }
+
+    public RankedUser(UserSearchResponse.User user, int friendsCount, FriendsResponse friends) {
+        this.user = user;
+        this.friendsCount = friendsCount;
+        this.friends = friends;
+    }
+
+    public UserSearchResponse.User getUser() {
+        return user;
+    }
+
+    public int getFriendsCount() {
+        return friendsCount;
+    }
+
+    public FriendsResponse getFriends() {
+        return friends;
+    }
+}
@@ -0,0 +1,82 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchPartition {
+    private final int cityId;
+    private final int ageFrom;
+    private final int ageTo;
+    private final int sex;
+    private final int birthMonth;
+
+    public SearchPartition(int cityId, int ageFrom, int ageTo, int sex, int birthMonth) {
+        this.cityId = cityId;
+        this.ageFrom = ageFrom;
+        this.ageTo = ageTo;
+        this.sex = sex;
+        this.birthMonth = birthMonth;
+    }
+
+    public static SearchPartition city(int cityId) {
+        return new SearchPartition(cityId, 0, 0, 0, 0);
+    }
+
+    public int getCityId() {
+        return cityId;
+    }
+
+    public int getAgeFrom() {
+        return ageFrom;
+    }
+
+    public int getAgeTo() {
+        return ageTo;
+    }
+
+    public int getSex() {
+        return sex;
+    }
+
+    public int getBirthMonth() {
+        return birthMonth;
+    }
+
+    public boolean hasAgeRange() {
+        return ageFrom > 0 && ageTo > 0;
+    }
+
+    public List<SearchPartition> split(int minAge, int maxAge) {
+        List<SearchPartition> parts = new ArrayList<>();
+        if (!hasAgeRange()) {
+            return new SearchPartition(cityId, minAge, maxAge, sex, birthMonth).split(minAge, maxAge);
+        } else if (ageTo > ageFrom) {
+            int middle = (ageFrom + ageTo) / 2;
+            parts.add(new SearchPartition(cityId, ageFrom, middle, sex, birthMonth));
+            parts.add(new SearchPartition(cityId, middle + 1, ageTo, sex, birthMonth));
+        } else if (sex == 0) {
+            parts.add(new SearchPartition(cityId, ageFrom, ageTo, 1, birthMonth));
+            parts.add(new SearchPartition(cityId, ageFrom, ageTo, 2, birthMonth));
+        } else if (birthMonth == 0) {
+            for (int month = 1; month <= 12; month++) {
+                parts.add(new SearchPartition(cityId, ageFrom, ageTo, sex, month));
+            }
+        }
+        return parts;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("city=").append(cityId);
+        if (hasAgeRange()) {
+            builder.append(", age=").append(ageFrom).append('-').append(ageTo);
+        }
+        if (sex != 0) {
+            builder.append(", sex=").append(sex);
+        }
+        if (birthMonth != 0) {
+            builder.append(", month=").append(birthMonth);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package search;
+
+import compact.UserColumns;
+import dto.UserSearchResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import progress.ProgressStage;
+import progress.ProgressTracker;
+import service.RequestPriority;
+import service.RequestScheduler;
+import service.VkApiException;
+import service.VkApiService;
+import util.IntHashSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SearchPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(SearchPlanner.class);
+    public static final int SEARCH_RESULT_CAP = 1000;
+
+    private final VkApiService vkApiService;
+    private final int usersPerRequest;
+    private final int parallelism;
+    private final int minAge;
+    private final int maxAge;
+    private ProgressTracker progressTracker;
+
+    public SearchPlanner(VkApiService vkApiService, int usersPerRequest, int parallelism, int minAge, int maxAge) {
+        this.vkApiService = vkApiService;
+        this.usersPerRequest = usersPerRequest;
+        this.parallelism = Math.max(1, parallelism);
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    public void setProgressTracker(ProgressTracker progressTracker) {
+        this.progressTracker = progressTracker;
+    }
+
+    public List<UserSearchResponse.User> collect(int cityId, int targetUsersCount) throws InterruptedException {
+        UserColumns users = new UserColumns(targetUsersCount);
+        collect(cityId, targetUsersCount, users::add);
+        return users;
+    }
+
+    public int collect(int cityId, int targetUsersCount, UserListener listener) throws InterruptedException {
+        return collect(cityId, targetUsersCount, listener, true);
+    }
+
+    public int collect(int cityId, int targetUsersCount, UserListener listener, boolean deduplicate)
+            throws InterruptedException {
+        IntHashSet seenIds = deduplicate ? new IntHashSet(targetUsersCount) : null;
+        int collected = 0;
+        AtomicBoolean done = new AtomicBoolean();
+        int duplicates = 0;
+        int partitions = 0;
+        ProgressStage progress = progressTracker != null ?
+                progressTracker.stage("поиск", targetUsersCount) : new ProgressStage("поиск", targetUsersCount);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "search-partition");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<PartitionResult> completionService = new ExecutorCompletionService<>(executor);
+
+        SearchPartition root = SearchPartition.city(cityId);
+        Deque<SearchPartition> pending = new ArrayDeque<>();
+        pending.add(root);
+        int running = 0;
+
+        try {
+            while ((!pending.isEmpty() || running > 0) && collected < targetUsersCount) {
+                while (!pending.isEmpty() && running < parallelism) {
+                    SearchPartition partition = pending.poll();
+                    completionService.submit(() -> RequestScheduler.call(RequestPriority.BULK, 0,
+                            () -> crawlPartition(partition, partition == root, done)));
+                    running++;
+                    partitions++;
+                }
+
+                PartitionResult result;
+                try {
+                    result = completionService.take().get();
+                } catch (ExecutionException e) {
+                    logger.error("Ошибка при обработке раздела поиска: {}", e.getCause().getMessage());
+                    running--;
+                    continue;
+                }
+                running--;
+                pending.addAll(result.children);
+                if (result.rootTotal >= 0) {
+                    progress.limitTotal(result.rootTotal);
+                }
+
+                int collectedBefore = collected;
+                for (UserColumns page : result.pages) {
+                    for (int row = 0; row < page.size() && collected < targetUsersCount; row++) {
+                        if (seenIds != null && !seenIds.add(page.getId(row))) {
+                            duplicates++;
+                        } else if (page.isOpen(row)) {
+                            listener.onUser(page.get(row));
+                            collected++;
+                        }
+                    }
+                }
+
+                progress.advance(collected - collectedBefore);
+
+                logger.info("Собрано пользователей: {}/{} (разделов в очереди: {}, в работе: {})",
+                        collected, targetUsersCount, pending.size(), running);
+            }
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+            progress.finish();
+        }
+
+        logger.info("Поиск завершен: {} разделов, {} открытых профилей, {} дубликатов отброшено",
+                partitions, collected, duplicates);
+        return collected;
+    }
+
+    private PartitionResult crawlPartition(SearchPartition partition, boolean pageWhenSplit,
+                                           AtomicBoolean done) throws Exception {
+        PartitionResult result = new PartitionResult();
+        if (done.get()) {
+            return result;
+        }
+
+        UserColumns firstPage;
+        try {
+            firstPage = vkApiService.searchUserColumns(partition, 0, usersPerRequest);
+        } catch (VkApiException e) {
+            logger.warn("Раздел [{}] пропущен: ошибка VK API [{}] {}", partition, e.getErrorCode(), e.getMessage());
+            return result;
+        }
+        if (firstPage == null) {
+            return result;
+        }
+
+        result.pages.add(firstPage);
+        int total = firstPage.getTotalCount();
+        if (pageWhenSplit) {
+            result.rootTotal = total;
+        }
+
+        if (total > SEARCH_RESULT_CAP) {
+            result.children.addAll(partition.split(minAge, maxAge));
+            if (result.children.isEmpty()) {
+                logger.warn("Раздел [{}] нельзя разбить дальше, доступно {} из {} пользователей",
+                        partition, SEARCH_RESULT_CAP, total);
+            } else {
+                logger.info("Раздел [{}] содержит {} пользователей, разбит на {} частей",
+                        partition, total, result.children.size());
+                if (!pageWhenSplit) {
+                    return result;
+                }
+            }
+        }
+
+        int reachable = Math.min(total, SEARCH_RESULT_CAP);
+        int offset = firstPage.size();
+        while (offset < reachable && !done.get()) {
+            UserColumns page;
+            try {
+                page = vkApiService.searchUserColumns(partition, offset, usersPerRequest);
+            } catch (VkApiException e) {
+                logger.warn("Раздел [{}] прерван на offset={}: ошибка VK API [{}] {}",
+                        partition, offset, e.getErrorCode(), e.getMessage());
+                break;
+            }
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            result.pages.add(page);
+            offset += page.size();
+        }
+        return result;
+    }
+
+    public interface UserListener {
+        void onUser(UserSearchResponse.User user) throws InterruptedException;
+    }
+
+    private static class PartitionResult {
+        private final List<UserColumns> pages = new ArrayList<>();
+        private final List<SearchPartition> children = new ArrayList<>();
+        private int rootTotal = -1;
+    }
+}
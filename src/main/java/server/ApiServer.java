@@ -0,0 +1,248 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dto.VkTypeAdapters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import service.CircuitOpenException;
+import service.RequestPriority;
+import service.UserStatistics;
+import service.VkApiException;
+import service.VkApiService;
+import store.CrawlStore;
+import store.EntityType;
+import store.StoredVersion;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class ApiServer {
+    private static final Logger logger = LoggerFactory.getLogger(ApiServer.class);
+
+    private final VkApiService vkApiService;
+    private final StatisticsProvider statisticsProvider;
+    private final CrawlJobManager jobManager;
+    private final int defaultCityId;
+    private final int defaultTargetUsers;
+    private final long requestTimeoutMs;
+    private final Gson gson;
+    private volatile CrawlStore crawlStore;
+    private final long startedAt = System.currentTimeMillis();
+    private HttpServer httpServer;
+
+    public ApiServer(VkApiService vkApiService, StatisticsProvider statisticsProvider, CrawlJobManager jobManager,
+                     int defaultCityId, int defaultTargetUsers, long requestTimeoutMs) {
+        this.vkApiService = vkApiService;
+        this.statisticsProvider = statisticsProvider;
+        this.jobManager = jobManager;
+        this.defaultCityId = defaultCityId;
+        this.defaultTargetUsers = defaultTargetUsers;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.gson = VkTypeAdapters.registerAll(new GsonBuilder()).create();
+    }
+
+    public void setCrawlStore(CrawlStore crawlStore) {
+        this.crawlStore = crawlStore;
+    }
+
+    public void start(int port, ExecutorService executor) throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext("/users/", this::handleUsers);
+        httpServer.createContext("/crawl", this::handleCrawl);
+        httpServer.createContext("/health", this::handleHealth);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        logger.info("HTTP сервер запущен на порту {}", port);
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(1);
+            logger.info("HTTP сервер остановлен");
+        }
+    }
+
+    private void handleUsers(HttpExchange exchange) throws IOException {
+        try {
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            boolean statisticsRequest = parts.length == 4 && "statistics".equals(parts[3]);
+            boolean historyRequest = parts.length == 5 && "history".equals(parts[3]);
+            if (!statisticsRequest && !historyRequest) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+
+            int userId;
+            try {
+                userId = Integer.parseInt(parts[2]);
+            } catch (NumberFormatException e) {
+                sendError(exchange, 400, "Invalid user id: " + parts[2]);
+                return;
+            }
+
+            if (historyRequest) {
+                handleHistory(exchange, userId, parts[4]);
+                return;
+            }
+
+            if ("true".equals(parseQuery(exchange).get("refresh"))) {
+                statisticsProvider.invalidate(userId);
+            }
+
+            UserStatistics statistics = statisticsProvider.get(userId, null, RequestPriority.INTERACTIVE, requestTimeoutMs)
+                    .get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+            sendJson(exchange, 200, statistics);
+        } catch (TimeoutException e) {
+            sendError(exchange, 504, "Statistics are still being calculated, retry later");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            int status = cause instanceof CircuitOpenException ? 503
+                    : cause instanceof VkApiException ? 502 : cause instanceof TimeoutException ? 504 : 500;
+            sendError(exchange, status, cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Interrupted");
+        } catch (Exception e) {
+            logger.error("Ошибка обработки запроса {}: {}", exchange.getRequestURI(), e.getMessage());
+            sendError(exchange, 500, e.getMessage());
+        }
+    }
+
+    private void handleHistory(HttpExchange exchange, int userId, String typeName) throws IOException {
+        CrawlStore store = crawlStore;
+        if (store == null) {
+            sendError(exchange, 404, "History store is disabled");
+            return;
+        }
+        EntityType type = null;
+        for (EntityType candidate : EntityType.values()) {
+            if (candidate.getDirectoryName().equals(typeName)) {
+                type = candidate;
+            }
+        }
+        if (type == null) {
+            sendError(exchange, 404, "Unknown history type: " + typeName);
+            return;
+        }
+
+        Map<String, String> query = parseQuery(exchange);
+        if (query.containsKey("from") || query.containsKey("to")) {
+            long from;
+            long to;
+            try {
+                from = Long.parseLong(query.getOrDefault("from", "0"));
+                to = Long.parseLong(query.getOrDefault("to", String.valueOf(Long.MAX_VALUE)));
+            } catch (NumberFormatException e) {
+                sendError(exchange, 400, "Invalid time range: " + e.getMessage());
+                return;
+            }
+            sendJson(exchange, 200, store.getRange(type, userId, from, to, type.getResponseType()));
+            return;
+        }
+
+        StoredVersion<?> latest = store.getLatest(type, userId, type.getResponseType());
+        if (latest == null) {
+            sendError(exchange, 404, "No stored " + typeName + " for user " + userId);
+        } else {
+            sendJson(exchange, 200, latest);
+        }
+    }
+
+    private void handleCrawl(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+
+            if ("/crawl".equals(path) || "/crawl/".equals(path)) {
+                if ("POST".equals(method)) {
+                    Map<String, String> query = parseQuery(exchange);
+                    int cityId = Integer.parseInt(query.getOrDefault("cityId", String.valueOf(defaultCityId)));
+                    int targetUsers = Integer.parseInt(query.getOrDefault("target", String.valueOf(defaultTargetUsers)));
+                    sendJson(exchange, 202, jobManager.submit(cityId, targetUsers));
+                } else if ("GET".equals(method)) {
+                    sendJson(exchange, 200, jobManager.list());
+                } else {
+                    sendError(exchange, 405, "Method not allowed");
+                }
+                return;
+            }
+
+            String jobId = path.substring("/crawl/".length());
+            CrawlJob job = jobManager.get(jobId);
+            if (job == null) {
+                sendError(exchange, 404, "Job not found: " + jobId);
+            } else {
+                sendJson(exchange, 200, job);
+            }
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid number: " + e.getMessage());
+        } catch (Exception e) {
+            logger.error("Ошибка обработки запроса {}: {}", exchange.getRequestURI(), e.getMessage());
+            sendError(exchange, 500, e.getMessage());
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        CoalescingCache<Integer, UserStatistics> cache = statisticsProvider.getCache();
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("uptimeMs", System.currentTimeMillis() - startedAt);
+        health.put("vkRequests", vkApiService.getRequestCount());
+        health.put("vkHedgedRequests", vkApiService.getHedgedCount());
+        health.put("circuits", vkApiService.getCircuitStates());
+        health.put("cacheEntries", cache.size());
+        health.put("cacheHits", cache.getHits());
+        health.put("cacheCoalesced", cache.getCoalesced());
+        health.put("cacheLoads", cache.getLoads());
+        health.put("jobs", jobManager.list().size());
+        health.put("scheduler", vkApiService.getScheduler().getStats());
+        sendJson(exchange, 200, health);
+    }
+
+    private Map<String, String> parseQuery(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> params = new HashMap<>();
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, Collections.singletonMap("error", message != null ? message : "Unknown error"));
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CoalescingCache<K, V> {
+    private final Map<K, CacheEntry<V>> entries;
+    private final long ttlMs;
+    private final ExecutorService executor;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    public CoalescingCache(int maxEntries, long ttlMs, ExecutorService executor) {
+        this.ttlMs = ttlMs;
+        this.executor = executor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > maxEntries) {
+                    Iterator<CacheEntry<V>> iterator = values().iterator();
+                    while (iterator.hasNext()) {
+                        if (iterator.next().future.isDone()) {
+                            iterator.remove();
+                            break;
+                        }
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    public CompletableFuture<V> get(K key, Callable<V> loader) {
+        CacheEntry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && !entry.isExpired(System.currentTimeMillis(), ttlMs)) {
+                if (entry.future.isDone()) {
+                    hits.incrementAndGet();
+                } else {
+                    coalesced.incrementAndGet();
+                }
+                return entry.future;
+            }
+            entry = new CacheEntry<>();
+            entries.put(key, entry);
+        }
+
+        loads.incrementAndGet();
+        CacheEntry<V> loading = entry;
+        try {
+            executor.execute(() -> {
+                try {
+                    V value = loader.call();
+                    loading.loadedAt = System.currentTimeMillis();
+                    loading.future.complete(value);
+                } catch (Exception e) {
+                    fail(key, loading, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(key, loading, e);
+        }
+        return loading.future;
+    }
+
+    private void fail(K key, CacheEntry<V> entry, Exception e) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+        entry.future.completeExceptionally(e);
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry != null && entry.future.isDone()) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getLoads() {
+        return loads.get();
+    }
+
+    private static class CacheEntry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long loadedAt;
+
+        private boolean isExpired(long now, long ttlMs) {
+            return future.isDone() && !future.isCompletedExceptionally() && now - loadedAt > ttlMs;
+        }
+    }
+}
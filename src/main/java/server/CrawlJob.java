@@ -0,0 +1,125 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CrawlJob {
+    public enum Status {
+        PENDING, SEARCHING, RANKING, STATISTICS, DONE, FAILED
+    }
+
+    private final String id;
+    private final int cityId;
+    private final int targetUsers;
+    private final long createdAt;
+    private volatile Status status = Status.PENDING;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile int collectedUsers;
+    private volatile Integer leaderId;
+    private volatile String error;
+    private volatile List<Candidate> topUsers = new ArrayList<>();
+
+    public CrawlJob(String id, int cityId, int targetUsers) {
+        this.id = id;
+        this.cityId = cityId;
+        this.targetUsers = targetUsers;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public static class Candidate {
+        private final int id;
+        private final String name;
+        private final int friendsCount;
+
+        public Candidate(int id, String name, int friendsCount) {
+            this.id = id;
+            this.name = name;
+            this.friendsCount = friendsCount;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getFriendsCount() {
+            return friendsCount;
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getCityId() {
+        return cityId;
+    }
+
+    public int getTargetUsers() {
+        return targetUsers;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public int getCollectedUsers() {
+        return collectedUsers;
+    }
+
+    public void setCollectedUsers(int collectedUsers) {
+        this.collectedUsers = collectedUsers;
+    }
+
+    public Integer getLeaderId() {
+        return leaderId;
+    }
+
+    public void setLeaderId(Integer leaderId) {
+        this.leaderId = leaderId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<Candidate> getTopUsers() {
+        return topUsers;
+    }
+
+    public void setTopUsers(List<Candidate> topUsers) {
+        this.topUsers = topUsers;
+    }
+}
@@ -0,0 +1,121 @@
+package server;
+
+import dto.UserSearchResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ranking.CandidateRanker;
+import ranking.RankedUser;
+import search.SearchPlanner;
+import service.RequestPriority;
+import service.VkApiService;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CrawlJobManager {
+    private static final Logger logger = LoggerFactory.getLogger(CrawlJobManager.class);
+
+    private final VkApiService vkApiService;
+    private final StatisticsProvider statisticsProvider;
+    private final SearchPlanner searchPlanner;
+    private final CandidateRanker candidateRanker;
+    private final ExecutorService executor;
+    private final Map<String, CrawlJob> jobs;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public CrawlJobManager(VkApiService vkApiService, StatisticsProvider statisticsProvider,
+                           SearchPlanner searchPlanner, CandidateRanker candidateRanker,
+                           ExecutorService executor, int maxJobs) {
+        this.vkApiService = vkApiService;
+        this.statisticsProvider = statisticsProvider;
+        this.searchPlanner = searchPlanner;
+        this.candidateRanker = candidateRanker;
+        this.executor = executor;
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CrawlJob> eldest) {
+                if (size() > maxJobs) {
+                    Iterator<CrawlJob> iterator = values().iterator();
+                    while (iterator.hasNext()) {
+                        CrawlJob.Status status = iterator.next().getStatus();
+                        if (status == CrawlJob.Status.DONE || status == CrawlJob.Status.FAILED) {
+                            iterator.remove();
+                            break;
+                        }
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    public CrawlJob submit(int cityId, int targetUsers) {
+        CrawlJob job = new CrawlJob("job-" + sequence.incrementAndGet(), cityId, targetUsers);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        executor.execute(() -> run(job));
+        logger.info("Задача {} поставлена в очередь: город {}, {} пользователей", job.getId(), cityId, targetUsers);
+        return job;
+    }
+
+    public CrawlJob get(String id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    public List<CrawlJob> list() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    private void run(CrawlJob job) {
+        job.setStartedAt(System.currentTimeMillis());
+        long requestsBefore = vkApiService.getRequestCount();
+        try {
+            job.setStatus(CrawlJob.Status.SEARCHING);
+            List<UserSearchResponse.User> users = searchPlanner.collect(job.getCityId(), job.getTargetUsers());
+            job.setCollectedUsers(users.size());
+
+            job.setStatus(CrawlJob.Status.RANKING);
+            List<RankedUser> ranked = candidateRanker.rank(users);
+            List<CrawlJob.Candidate> topUsers = new ArrayList<>();
+            for (RankedUser rankedUser : ranked) {
+                UserSearchResponse.User user = rankedUser.getUser();
+                topUsers.add(new CrawlJob.Candidate(user.id, user.first_name + " " + user.last_name,
+                        rankedUser.getFriendsCount()));
+            }
+            job.setTopUsers(topUsers);
+
+            if (!topUsers.isEmpty()) {
+                CrawlJob.Candidate leader = topUsers.get(0);
+                job.setLeaderId(leader.getId());
+                job.setStatus(CrawlJob.Status.STATISTICS);
+                statisticsProvider.get(leader.getId(), leader.getName(), RequestPriority.NORMAL, 0).get();
+            }
+            job.setStatus(CrawlJob.Status.DONE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, "interrupted");
+        } catch (Exception e) {
+            fail(job, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        } finally {
+            job.setFinishedAt(System.currentTimeMillis());
+            logger.info("Задача {} завершена со статусом {} за {} запросов", job.getId(), job.getStatus(),
+                    vkApiService.getRequestCount() - requestsBefore);
+        }
+    }
+
+    private void fail(CrawlJob job, String error) {
+        job.setError(error);
+        job.setStatus(CrawlJob.Status.FAILED);
+        logger.error("Ошибка в задаче {}: {}", job.getId(), error);
+    }
+}
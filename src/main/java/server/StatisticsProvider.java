@@ -0,0 +1,51 @@
+package server;
+
+import dto.FriendsResponse;
+import service.RequestPriority;
+import service.RequestScheduler;
+import service.StatisticsService;
+import service.UserStatistics;
+import service.VkApiException;
+import service.VkApiService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+public class StatisticsProvider {
+    private final VkApiService vkApiService;
+    private final StatisticsService statisticsService;
+    private final CoalescingCache<Integer, UserStatistics> cache;
+
+    public StatisticsProvider(VkApiService vkApiService, StatisticsService statisticsService,
+                              int maxEntries, long ttlMs, ExecutorService executor) {
+        this.vkApiService = vkApiService;
+        this.statisticsService = statisticsService;
+        this.cache = new CoalescingCache<>(maxEntries, ttlMs, executor);
+    }
+
+    public CompletableFuture<UserStatistics> get(int userId, String userName, RequestPriority priority,
+                                                 long timeoutMs) {
+        return cache.get(userId, () -> RequestScheduler.call(priority, timeoutMs,
+                () -> statisticsService.calculateStatistics(userId,
+                        userName != null ? userName : resolveName(userId))));
+    }
+
+    public void invalidate(int userId) {
+        cache.invalidate(userId);
+    }
+
+    public CoalescingCache<Integer, UserStatistics> getCache() {
+        return cache;
+    }
+
+    private String resolveName(int userId) throws Exception {
+        List<FriendsResponse.Friend> users = vkApiService.getUsers(Collections.singletonList(userId), "");
+        if (users.isEmpty()) {
+            throw new VkApiException("User not found: " + userId, 0);
+        }
+        FriendsResponse.Friend user = users.get(0);
+        return user.first_name + " " + user.last_name;
+    }
+}
@@ -0,0 +1,77 @@
+package service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String method;
+    private final int failureThreshold;
+    private final long openMs;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String method, int failureThreshold, long openMs) {
+        this.method = method;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = openMs;
+    }
+
+    public synchronized boolean isRejecting() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openMs
+                || state == State.HALF_OPEN && probeInFlight;
+    }
+
+    public synchronized void acquire() throws CircuitOpenException {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMs) {
+                throw new CircuitOpenException(method);
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            logger.info("Пробный запрос к {} после паузы", method);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                throw new CircuitOpenException(method);
+            }
+            probeInFlight = true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Метод {} снова доступен", method);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.warn("Метод {} отключен на {}ms после {} ошибок подряд", method, openMs, consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
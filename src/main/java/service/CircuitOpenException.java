@@ -0,0 +1,14 @@
+package service;
+
+public class CircuitOpenException extends VkApiException {
+    private final String method;
+
+    public CircuitOpenException(String method) {
+        super("Circuit breaker is open for " + method, 0);
+        this.method = method;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+}
@@ -4,41 +4,75 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import dto.FriendsResponse;
 import dto.GroupsResponse;
+import dto.VkTypeAdapters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sketch.FriendOverlapReport;
+import text.TextReport;
+import timeline.ActivityTimeSeries;
+import timeline.WallHistory;
 
-import java.io.FileWriter;
+import util.ConfigReader;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
-public class ExportService {
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExportService implements Closeable {
     private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
     private final Gson gson;
+    private final ExecutorService writers;
+    private final int bufferSize;
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
 
     public ExportService() {
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this(ConfigReader.getExportWriterThreads(), ConfigReader.getExportBufferKb() * 1024);
     }
 
-    public void exportToJson(UserStatistics statistics, int userId) throws IOException {
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String filename = String.format("statistics_%d_%s.json", userId, timestamp);
+    public ExportService(int writerThreads, int bufferSize) {
+        this.gson = VkTypeAdapters.registerAll(new GsonBuilder()).setPrettyPrinting().create();
+        this.bufferSize = Math.max(1024, bufferSize);
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "export-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
-        try (Writer writer = new FileWriter(filename)) {
-            gson.toJson(statistics, writer);
-        }
+    public void exportToJson(UserStatistics statistics, int userId) {
+        String filename = String.format("statistics_%d_%s.json", userId, timestamp());
+        submit(filename, "Статистика экспортирована в JSON файл: {}", writer -> gson.toJson(statistics, writer));
+    }
 
-        logger.info("Статистика экспортирована в JSON файл: {}", filename);
+    public void exportOverlapToJson(FriendOverlapReport report) {
+        String filename = String.format("overlap_%s.json", timestamp());
+        submit(filename, "Оценки пересечения друзей экспортированы в JSON файл: {}", writer -> gson.toJson(report, writer));
     }
 
-    public void exportFriendsToCsv(FriendsResponse friendsResponse, int userId) throws IOException {
-        if (friendsResponse == null || friendsResponse.response == null) return;
+    public void exportTermsToJson(TextReport report) {
+        String filename = String.format("terms_%s.json", timestamp());
+        submit(filename, "Частотные термины экспортированы в JSON файл: {}", writer -> gson.toJson(report, writer));
+    }
 
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String filename = String.format("friends_%d_%s.csv", userId, timestamp);
+    public void exportFriendsToCsv(FriendsResponse friendsResponse, int userId) {
+        if (friendsResponse == null || friendsResponse.response == null) return;
 
-        try (FileWriter writer = new FileWriter(filename)) {
+        String filename = String.format("friends_%d_%s.csv", userId, timestamp());
+        submit(filename, "Друзья экспортированы в CSV файл: {}", writer -> {
             writer.write("ID,FirstName,LastName,City,FriendsCount\n");
 
             for (FriendsResponse.Friend friend : friendsResponse.response.items) {
@@ -47,26 +81,85 @@ public class ExportService {
 
                 writer.write(String.format("%d,%s,%s,%s,%s\n", friend.id, escapeCsv(friend.first_name), escapeCsv(friend.last_name), escapeCsv(city), friendsCount));
             }
-        }
-
-        logger.info("Друзья экспортированы в CSV файл: {}", filename);
+        });
     }
 
-    public void exportGroupsToCsv(GroupsResponse groupsResponse, int userId) throws IOException {
+    public void exportGroupsToCsv(GroupsResponse groupsResponse, int userId) {
         if (groupsResponse == null || groupsResponse.response == null) return;
 
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String filename = String.format("groups_%d_%s.csv", userId, timestamp);
-
-        try (FileWriter writer = new FileWriter(filename)) {
+        String filename = String.format("groups_%d_%s.csv", userId, timestamp());
+        submit(filename, "Группы экспортированы в CSV файл: {}", writer -> {
             writer.write("ID,Name,ScreenName,MembersCount,Type\n");
 
             for (GroupsResponse.Group group : groupsResponse.response.items) {
                 writer.write(String.format("%d,%s,%s,%d,%s\n", group.id, escapeCsv(group.name), escapeCsv(group.screen_name), group.members_count != null ? group.members_count : 0, escapeCsv(group.type)));
             }
+        });
+    }
+
+    public void exportWallHistoryToCsv(WallHistory history) {
+        String filename = String.format("wall_history_%d_%s.csv", history.getUserId(), timestamp());
+        submit(filename, "История стены экспортирована в CSV файл: {}", writer -> {
+            writer.write("Period,Start,Posts,Likes,Reposts,Comments,AvgTextLength\n");
+            writeTimeSeries(writer, history.getDaily());
+            writeTimeSeries(writer, history.getWeekly());
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writers.isTerminated()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        writers.shutdown();
+        try {
+            while (!writers.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.info("Ожидание завершения записи файлов экспорта...");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Ожидание записи файлов экспорта прервано");
+        }
+        if (written.get() > 0 || failed.get() > 0) {
+            logger.info("Экспорт завершен: {} файлов записано, {} с ошибками, ожидание {}ms",
+                    written.get(), failed.get(), System.currentTimeMillis() - startTime);
+        }
+        if (failed.get() > 0) {
+            throw new IOException("Не удалось записать файлов экспорта: " + failed.get());
+        }
+    }
+
+    private void submit(String filename, String message, WriteTask task) {
+        writers.execute(() -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    Files.newOutputStream(Paths.get(filename)), StandardCharsets.UTF_8), bufferSize)) {
+                task.write(writer);
+                written.incrementAndGet();
+                logger.info(message, filename);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                logger.error("Не удалось записать файл экспорта {}: {}", filename, e.getMessage());
+            }
+        });
+    }
+
+    private static String timestamp() {
+        return LocalDateTime.now().format(TIMESTAMP_FORMAT);
+    }
+
+    private void writeTimeSeries(Writer writer, ActivityTimeSeries series) throws IOException {
+        for (int i = series.getBucketCount() - 1; i >= 0; i--) {
+            int posts = series.getPosts(i);
+            double avgTextLength = posts > 0 ? (double) series.getTextLength(i) / posts : 0.0;
+            writer.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.1f\n", series.getBucketSize().getLabel(),
+                    series.getBucketStart(i), posts, series.getLikes(i), series.getReposts(i),
+                    series.getComments(i), avgTextLength));
         }
+    }
 
-        logger.info("Группы экспортированы в CSV файл: {}", filename);
+    private interface WriteTask {
+        void write(Writer writer) throws IOException;
     }
 
     private String escapeCsv(String value) {
@@ -0,0 +1,50 @@
+package service;
+
+public class GroupOverlap {
+    private final int groupId;
+    private final String name;
+    private final int members;
+    private final int sampledMembers;
+    private final boolean sampled;
+    private final int friendsInGroup;
+    private final double friendsShare;
+
+    public GroupOverlap(int groupId, String name, int members, int sampledMembers, int friendsInGroup,
+                        double friendsShare) {
+        this.groupId = groupId;
+        this.name = name;
+        this.members = members;
+        this.sampledMembers = sampledMembers;
+        this.sampled = sampledMembers < members;
+        this.friendsInGroup = friendsInGroup;
+        this.friendsShare = friendsShare;
+    }
+
+    public int getGroupId() {
+        return groupId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMembers() {
+        return members;
+    }
+
+    public int getSampledMembers() {
+        return sampledMembers;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public int getFriendsInGroup() {
+        return friendsInGroup;
+    }
+
+    public double getFriendsShare() {
+        return friendsShare;
+    }
+}
@@ -0,0 +1,33 @@
+package service;
+
+import java.util.Arrays;
+
+public class LatencyTracker {
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    public LatencyTracker(int window) {
+        this.samples = new long[Math.max(1, window)];
+    }
+
+    public synchronized void record(long latencyMs) {
+        samples[next] = latencyMs;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long percentile(double percentile) {
+        if (size == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+}
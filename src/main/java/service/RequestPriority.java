@@ -0,0 +1,7 @@
+package service;
+
+public enum RequestPriority {
+    INTERACTIVE,
+    NORMAL,
+    BULK
+}
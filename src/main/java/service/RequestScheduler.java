@@ -0,0 +1,290 @@
+package service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class RequestScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(RequestScheduler.class);
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final ThreadLocal<Context> CURRENT = ThreadLocal.withInitial(() -> Context.DEFAULT);
+
+    private final RateLimiter rateLimiter;
+    private final long urgentWindowNanos;
+    private final double[] weights = new double[PRIORITIES.length];
+    private final double[] lastFinish = new double[PRIORITIES.length];
+    private final List<ArrayDeque<Ticket>> queues = new ArrayList<>(PRIORITIES.length);
+    private final AtomicLong[] granted = new AtomicLong[PRIORITIES.length];
+    private final AtomicLong[] expired = new AtomicLong[PRIORITIES.length];
+    private final AtomicLong[] waitNanos = new AtomicLong[PRIORITIES.length];
+    private final AtomicLong[] maxWaitNanos = new AtomicLong[PRIORITIES.length];
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private double virtualTime;
+    private int queued;
+
+    public RequestScheduler(RateLimiter rateLimiter, Map<RequestPriority, Double> weights) {
+        this.rateLimiter = rateLimiter;
+        this.urgentWindowNanos = (long) (2 * TimeUnit.SECONDS.toNanos(1) / rateLimiter.getPermitsPerSecond());
+        for (RequestPriority priority : PRIORITIES) {
+            int index = priority.ordinal();
+            this.weights[index] = Math.max(0.001, weights.getOrDefault(priority, 1.0));
+            this.queues.add(new ArrayDeque<>());
+            this.granted[index] = new AtomicLong();
+            this.expired[index] = new AtomicLong();
+            this.waitNanos[index] = new AtomicLong();
+            this.maxWaitNanos[index] = new AtomicLong();
+        }
+
+        Thread dispatcher = new Thread(this::dispatch, "vk-request-scheduler");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public static <T> T call(RequestPriority priority, long timeoutMs, Callable<T> task) throws Exception {
+        Context previous = CURRENT.get();
+        long deadline = timeoutMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : NO_DEADLINE;
+        if (previous.deadlineNanos != NO_DEADLINE && (deadline == NO_DEADLINE || previous.deadlineNanos - deadline < 0)) {
+            deadline = previous.deadlineNanos;
+        }
+        CURRENT.set(new Context(priority, deadline));
+        try {
+            return task.call();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Context context = CURRENT.get();
+        return () -> {
+            Context previous = CURRENT.get();
+            CURRENT.set(context);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public void acquire() throws InterruptedException, TimeoutException {
+        Context context = CURRENT.get();
+        Ticket ticket = new Ticket(context.priority, context.deadlineNanos);
+
+        lock.lock();
+        try {
+            queues.get(ticket.priority.ordinal()).add(ticket);
+            queued++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            ticket.latch.await();
+        } catch (InterruptedException e) {
+            lock.lock();
+            try {
+                ticket.cancelled = true;
+                if (queues.get(ticket.priority.ordinal()).remove(ticket)) {
+                    queued--;
+                }
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        if (ticket.expired) {
+            throw new TimeoutException("Истек срок ожидания запроса (" + ticket.priority + ")");
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            for (RequestPriority priority : PRIORITIES) {
+                int index = priority.ordinal();
+                long grantedCount = granted[index].get();
+                Map<String, Object> classStats = new LinkedHashMap<>();
+                classStats.put("queued", queues.get(index).size());
+                classStats.put("granted", grantedCount);
+                classStats.put("expired", expired[index].get());
+                classStats.put("avgWaitMs", grantedCount > 0 ?
+                        TimeUnit.NANOSECONDS.toMillis(waitNanos[index].get() / grantedCount) : 0);
+                classStats.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos[index].get()));
+                stats.put(priority.name().toLowerCase(), classStats);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    public void logStats() {
+        for (RequestPriority priority : PRIORITIES) {
+            int index = priority.ordinal();
+            long grantedCount = granted[index].get();
+            if (grantedCount == 0 && expired[index].get() == 0) {
+                continue;
+            }
+            logger.info("Очередь {}: {} запросов, ожидание в среднем {}ms, максимум {}ms, просрочено {}",
+                    priority, grantedCount, TimeUnit.NANOSECONDS.toMillis(waitNanos[index].get() / Math.max(1, grantedCount)),
+                    TimeUnit.NANOSECONDS.toMillis(maxWaitNanos[index].get()), expired[index].get());
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            try {
+                lock.lock();
+                try {
+                    while (queued == 0) {
+                        notEmpty.await();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                rateLimiter.acquire();
+
+                Ticket ticket = null;
+                while (ticket == null) {
+                    lock.lock();
+                    try {
+                        while (queued == 0) {
+                            notEmpty.await();
+                        }
+                        ticket = next(System.nanoTime());
+                        if (ticket != null && !ticket.cancelled) {
+                            grant(ticket);
+                        } else {
+                            ticket = null;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Ошибка планировщика запросов: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Ticket next(long now) {
+        expireOverdue(now);
+
+        Ticket urgent = null;
+        for (ArrayDeque<Ticket> queue : queues) {
+            for (Ticket ticket : queue) {
+                if (ticket.hasDeadline() && ticket.deadlineNanos - now <= urgentWindowNanos
+                        && (urgent == null || ticket.deadlineNanos - urgent.deadlineNanos < 0)) {
+                    urgent = ticket;
+                }
+            }
+        }
+
+        int selected = -1;
+        double selectedFinish = Double.MAX_VALUE;
+        if (urgent != null) {
+            selected = urgent.priority.ordinal();
+            selectedFinish = Math.max(virtualTime, lastFinish[selected]) + 1.0 / weights[selected];
+        } else {
+            for (int index = 0; index < queues.size(); index++) {
+                if (queues.get(index).isEmpty()) {
+                    continue;
+                }
+                double finish = Math.max(virtualTime, lastFinish[index]) + 1.0 / weights[index];
+                if (finish < selectedFinish) {
+                    selected = index;
+                    selectedFinish = finish;
+                }
+            }
+        }
+        if (selected < 0) {
+            return null;
+        }
+
+        virtualTime = Math.max(virtualTime, lastFinish[selected]);
+        lastFinish[selected] = selectedFinish;
+        Ticket ticket = urgent != null ? urgent : queues.get(selected).peek();
+        queues.get(selected).remove(ticket);
+        queued--;
+        return ticket;
+    }
+
+    private void expireOverdue(long now) {
+        for (int index = 0; index < queues.size(); index++) {
+            Iterator<Ticket> iterator = queues.get(index).iterator();
+            while (iterator.hasNext()) {
+                Ticket ticket = iterator.next();
+                if (ticket.cancelled || (ticket.hasDeadline() && ticket.deadlineNanos - now < 0)) {
+                    iterator.remove();
+                    queued--;
+                    if (!ticket.cancelled) {
+                        ticket.expired = true;
+                        expired[index].incrementAndGet();
+                        ticket.latch.countDown();
+                    }
+                }
+            }
+        }
+    }
+
+    private void grant(Ticket ticket) {
+        int index = ticket.priority.ordinal();
+        long waited = System.nanoTime() - ticket.enqueuedAt;
+        granted[index].incrementAndGet();
+        waitNanos[index].addAndGet(waited);
+        maxWaitNanos[index].accumulateAndGet(waited, Math::max);
+        ticket.latch.countDown();
+    }
+
+    private static class Context {
+        private static final Context DEFAULT = new Context(RequestPriority.NORMAL, NO_DEADLINE);
+
+        private final RequestPriority priority;
+        private final long deadlineNanos;
+
+        private Context(RequestPriority priority, long deadlineNanos) {
+            this.priority = priority;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static class Ticket {
+        private final RequestPriority priority;
+        private final long deadlineNanos;
+        private final long enqueuedAt = System.nanoTime();
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+
+        private Ticket(RequestPriority priority, long deadlineNanos) {
+            this.priority = priority;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private boolean hasDeadline() {
+            return deadlineNanos != NO_DEADLINE;
+        }
+    }
+}
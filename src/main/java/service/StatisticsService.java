@@ -1,173 +1,405 @@
 package service;
 
+import com.google.gson.Gson;
+import compact.FriendColumns;
+import compact.GroupColumns;
+import dto.FriendIdsResponse;
 import dto.FriendsResponse;
+import dto.GroupIdsResponse;
 import dto.GroupsResponse;
 import dto.WallResponse;
+import metrics.BuiltInMetrics;
+import metrics.MetricEngine;
+import metrics.MetricRegistry;
+import metrics.MetricSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import progress.ProgressStage;
+import progress.ProgressTracker;
+import snapshot.SnapshotStore;
+import snapshot.UserSnapshot;
+import text.TextAnalyzer;
 import util.ConfigReader;
+import util.SortedIntSet;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 public class StatisticsService {
     private static final Logger logger = LoggerFactory.getLogger(StatisticsService.class);
     private final VkApiService vkApiService;
+    private final MetricRegistry metricRegistry;
+    private final MetricEngine metricEngine;
+    private final SnapshotStore snapshotStore;
+    private final TextAnalyzer textAnalyzer;
+    private ProgressTracker progressTracker;
 
     public StatisticsService(VkApiService vkApiService) {
         this.vkApiService = vkApiService;
+        this.metricRegistry = new MetricRegistry();
+        BuiltInMetrics.registerAll(metricRegistry, friendsSampleSize());
+        this.metricEngine = new MetricEngine(metricRegistry,
+                ConfigReader.isStatisticsMetricsParallel(), ConfigReader.getStatisticsMetricsThreads());
+        this.snapshotStore = ConfigReader.isStatisticsIncrementalEnabled() ?
+                new SnapshotStore(ConfigReader.getSnapshotDir()) : null;
+        if (ConfigReader.isTextEnabled()) {
+            BuiltInMetrics.registerTextMetrics(metricRegistry, ConfigReader.getTextMinTermLength(),
+                    ConfigReader.getTextSketchCapacity(), ConfigReader.getTextUserCounterCapacity(),
+                    ConfigReader.getTextTopN());
+            this.textAnalyzer = new TextAnalyzer(ConfigReader.getTextMinTermLength(),
+                    ConfigReader.getTextSketchCapacity(), ConfigReader.getTextCounterCapacity());
+        } else {
+            this.textAnalyzer = null;
+        }
+    }
+
+    public void setProgressTracker(ProgressTracker progressTracker) {
+        this.progressTracker = progressTracker;
+    }
+
+    public TextAnalyzer getTextAnalyzer() {
+        return textAnalyzer;
+    }
+
+    public MetricRegistry getMetricRegistry() {
+        return metricRegistry;
     }
 
     public UserStatistics calculateStatistics(int userId, String userName) throws Exception {
+        return calculateStatistics(userId, userName, null);
+    }
+
+    public UserStatistics calculateStatistics(int userId, String userName, FriendsResponse knownFriends)
+            throws Exception {
         logger.info("Calculating statistics for user: {} (id: {})", userName, userId);
 
         UserStatistics statistics = new UserStatistics();
         statistics.setUser(new UserStatistics.UserInfo(userId, userName));
         statistics.setGeneratedAt(new Date());
 
-        calculateFriendsStatistics(userId, statistics);
-        calculateGroupsStatistics(userId, statistics);
-        calculatePostsStatistics(userId, statistics);
+        UserSnapshot previous = loadSnapshot(userId);
+        UserSnapshot current = new UserSnapshot(userId);
+        long requestsBefore = vkApiService.getRequestCount();
+
+        boolean friends = metricRegistry.hasMetrics(MetricSource.FRIENDS);
+        boolean groups = metricRegistry.hasMetrics(MetricSource.GROUPS);
+        boolean posts = metricRegistry.hasMetrics(MetricSource.POSTS);
+        boolean overlap = ConfigReader.isGroupMembersEnabled();
+        int phases = (friends ? 1 : 0) + (groups ? 1 : 0) + (posts ? 1 : 0) + (overlap ? 1 : 0);
+        ProgressStage progress = progressTracker != null ? progressTracker.stage("статистика " + userId, phases) :
+                new ProgressStage("статистика " + userId, phases);
+
+        try {
+            if (friends) {
+                calculateFriendsMetrics(userId, previous, current, statistics, knownFriends);
+                progress.advance(1);
+            }
+            if (groups) {
+                calculateGroupsMetrics(userId, previous, current, statistics);
+                progress.advance(1);
+            }
+            if (overlap) {
+                if (current.hasFriends() && current.hasGroups()) {
+                    calculateGroupAudienceOverlap(current, statistics);
+                }
+                progress.advance(1);
+            }
+            if (posts) {
+                calculatePostsMetrics(userId, current, statistics);
+                if (textAnalyzer != null && current.hasPosts() && !ConfigReader.isWallHistoryEnabled()) {
+                    for (WallResponse.Post post : current.posts) {
+                        textAnalyzer.accept(post.text);
+                    }
+                }
+                progress.advance(1);
+            }
+        } finally {
+            progress.finish();
+        }
+
+        if (previous != null && ConfigReader.isStatisticsIncrementalVerify()) {
+            verifyIncremental(userId, statistics, friends, groups, posts);
+        }
+
+        applyBuiltInMetrics(statistics);
 
+        if (snapshotStore != null) {
+            logger.info("Статистика пользователя {} рассчитана за {} запросов ({})", userId,
+                    vkApiService.getRequestCount() - requestsBefore, previous != null ? "по снимку" : "полный расчет");
+            snapshotStore.save(current);
+        }
         return statistics;
     }
 
-    private void calculateFriendsStatistics(int userId, UserStatistics statistics) throws Exception {
-        FriendsResponse friendsResponse = vkApiService.getFriends(userId);
-        if (friendsResponse == null || friendsResponse.response == null) {
-            logger.warn("Не удалось получить друзей для пользователя {}", userId);
-            return;
+    private void verifyIncremental(int userId, UserStatistics incremental, boolean friends, boolean groups,
+                                   boolean posts) throws Exception {
+        UserSnapshot scratch = new UserSnapshot(userId);
+        UserStatistics full = new UserStatistics();
+        if (friends) {
+            calculateFriendsMetrics(userId, null, scratch, full, null);
+        }
+        if (groups) {
+            calculateGroupsMetrics(userId, null, scratch, full);
+        }
+        if (posts) {
+            calculatePostsMetrics(userId, scratch, full);
+        }
+
+        Gson gson = new Gson();
+        List<String> mismatched = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : full.getMetrics().entrySet()) {
+            if (!gson.toJson(entry.getValue()).equals(gson.toJson(incremental.getMetrics().get(entry.getKey())))) {
+                mismatched.add(entry.getKey());
+            }
         }
 
-        List<FriendsResponse.Friend> friends = friendsResponse.response.items;
-        int totalFriends = friendsResponse.response.count;
-        statistics.getFriends().setTotal(totalFriends);
-
-        Map<String, Long> cityCounts = friends.stream()
-                .filter(friend -> friend.city != null)
-                .collect(Collectors.groupingBy(
-                        friend -> friend.city.title,
-                        Collectors.counting()
-                ));
-
-        List<Map.Entry<String, Long>> topCities = cityCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .collect(Collectors.toList());
-        statistics.getFriends().setTopCities(topCities);
-
-        long closedProfiles = friends.stream()
-                .filter(friend -> friend.is_closed != null && friend.is_closed)
-                .count();
-        double closedPercentage = totalFriends > 0 ? (double) closedProfiles / totalFriends * 100 : 0;
-        statistics.getFriends().setClosedPercentage(closedPercentage);
-
-        int sampleSize = Math.min(ConfigReader.getStatisticsFriendsSample(), friends.size());
-        double avgFriendsOfFriends = friends.stream()
-                .limit(sampleSize)
-                .filter(friend -> friend.counters != null && friend.counters.friends != null)
-                .mapToInt(friend -> friend.counters.friends)
-                .average()
-                .orElse(0);
-        statistics.getFriends().setAvgFriendsOfFriends(avgFriendsOfFriends);
+        if (mismatched.isEmpty()) {
+            logger.info("Инкрементальный расчет пользователя {} совпадает с полным", userId);
+        } else {
+            logger.warn("Инкрементальный расчет пользователя {} расходится с полным по метрикам: {}",
+                    userId, mismatched);
+        }
     }
 
-    private void calculateGroupsStatistics(int userId, UserStatistics statistics) throws Exception {
-        GroupsResponse groupsResponse = vkApiService.getGroups(userId);
-        if (groupsResponse == null || groupsResponse.response == null) {
-            logger.warn("Не удалось получить группы для пользователя {}", userId);
+    private UserSnapshot loadSnapshot(int userId) {
+        if (snapshotStore == null) {
+            return null;
+        }
+
+        UserSnapshot snapshot = snapshotStore.load(userId);
+        if (snapshot == null) {
+            return null;
+        }
+
+        long maxAgeMs = TimeUnit.HOURS.toMillis(ConfigReader.getStatisticsIncrementalMaxAgeHours());
+        if (System.currentTimeMillis() - snapshot.createdAt > maxAgeMs) {
+            logger.info("Снимок пользователя {} устарел, выполняется полный расчет", userId);
+            return null;
+        }
+        return snapshot;
+    }
+
+    private void calculateFriendsMetrics(int userId, UserSnapshot previous, UserSnapshot current,
+                                         UserStatistics statistics, FriendsResponse knownFriends) throws Exception {
+        FriendColumns friends;
+
+        if (knownFriends != null && knownFriends.response != null && knownFriends.response.items != null) {
+            Map<Integer, FriendsResponse.Friend> known = previous != null && previous.hasFriends() ?
+                    previous.restoreFriends() : Map.of();
+            friends = new FriendColumns(knownFriends.response.items.size());
+            int reused = 0;
+            for (FriendsResponse.Friend friend : knownFriends.response.items) {
+                int row = friends.size();
+                friends.add(friend);
+                FriendsResponse.Friend snapshotFriend = known.get(friend.id);
+                if (friends.getFriendsCount(row) < 0 && snapshotFriend != null && snapshotFriend.counters != null) {
+                    friends.setFriendsCount(row, snapshotFriend.counters.friends);
+                    reused++;
+                }
+            }
+            friends.setTotalCount(knownFriends.response.count != null ?
+                    knownFriends.response.count : knownFriends.response.items.size());
+            if (!known.isEmpty()) {
+                logger.info("Друзья пользователя {}: количество друзей взято из снимка для {}", userId, reused);
+            }
+        } else if (previous != null && previous.hasFriends()) {
+            FriendIdsResponse idsResponse = vkApiService.getFriendIds(userId);
+            if (idsResponse == null || idsResponse.response == null) {
+                logger.warn("Не удалось получить друзей для пользователя {}", userId);
+                return;
+            }
+
+            Map<Integer, FriendsResponse.Friend> known = previous.restoreFriends();
+            List<Integer> added = new ArrayList<>();
+            for (Integer id : idsResponse.response.items) {
+                if (!known.containsKey(id)) {
+                    added.add(id);
+                }
+            }
+
+            Map<Integer, FriendsResponse.Friend> hydrated = new HashMap<>();
+            if (!added.isEmpty()) {
+                for (FriendsResponse.Friend friend : vkApiService.getUsers(added, "city")) {
+                    hydrated.put(friend.id, friend);
+                }
+            }
+
+            friends = new FriendColumns(idsResponse.response.items.size());
+            for (Integer id : idsResponse.response.items) {
+                FriendsResponse.Friend friend = known.containsKey(id) ? known.get(id) : hydrated.get(id);
+                if (friend != null) {
+                    friends.add(friend);
+                }
+            }
+            friends.setTotalCount(idsResponse.response.count);
+
+            logger.info("Друзья пользователя {}: +{} / -{} относительно снимка", userId,
+                    added.size(), known.size() - (friends.size() - hydrated.size()));
+        } else {
+            friends = vkApiService.getFriendColumns(userId);
+        }
+
+        if (ConfigReader.isStatisticsFriendsHydrateEnabled()) {
+            hydrateFriendCounters(friends);
+        }
+
+        current.captureFriends(friends, friends.getTotalCount());
+        statistics.getMetrics().putAll(metricEngine.evaluate(MetricSource.FRIENDS, friends, friends.getTotalCount()));
+    }
+
+    private void hydrateFriendCounters(FriendColumns friends) throws Exception {
+        int rows = Math.min(friends.size(), friendsSampleSize());
+        Map<Integer, Integer> pending = new LinkedHashMap<>();
+        for (int row = 0; row < rows; row++) {
+            boolean accessible = !friends.isDeactivated(row) &&
+                    (!friends.isClosed(row) || friends.canAccessClosed(row));
+            if (accessible && friends.getFriendsCount(row) < 0) {
+                pending.put(friends.getId(row), row);
+            }
+        }
+        if (pending.isEmpty()) {
             return;
         }
 
-        List<GroupsResponse.Group> groups = groupsResponse.response.items;
-        statistics.getGroups().setTotal(groupsResponse.response.count);
+        long startTime = System.currentTimeMillis();
+        long requestsBefore = vkApiService.getRequestCount();
+        Map<Integer, Integer> counts = vkApiService.getFriendCounts(new ArrayList<>(pending.keySet()));
+        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+            friends.setFriendsCount(pending.get(entry.getKey()), entry.getValue());
+        }
+
+        logger.info("Получено количество друзей для {}/{} друзей за {} запросов ({}ms)",
+                counts.size(), pending.size(), vkApiService.getRequestCount() - requestsBefore,
+                System.currentTimeMillis() - startTime);
+    }
+
+    private static int friendsSampleSize() {
+        if (!ConfigReader.isStatisticsFriendsHydrateEnabled()) {
+            return ConfigReader.getStatisticsFriendsSample();
+        }
+        int limit = ConfigReader.getStatisticsFriendsHydrateMax();
+        return limit > 0 ? limit : Integer.MAX_VALUE;
+    }
+
+    private void calculateGroupsMetrics(int userId, UserSnapshot previous, UserSnapshot current,
+                                        UserStatistics statistics) throws Exception {
+        List<GroupsResponse.Group> groups;
+        int totalGroups;
+
+        if (previous != null && previous.hasGroups()) {
+            GroupIdsResponse idsResponse = vkApiService.getGroupIds(userId);
+            if (idsResponse == null || idsResponse.response == null) {
+                logger.warn("Не удалось получить группы для пользователя {}", userId);
+                return;
+            }
+
+            Map<Integer, GroupsResponse.Group> known = new HashMap<>();
+            for (GroupsResponse.Group group : previous.groups) {
+                known.put(group.id, group);
+            }
 
-        List<GroupsResponse.Group> topGroups = groups.stream()
-                .sorted(Comparator.comparing(group -> group.members_count != null ? group.members_count : 0, Comparator.reverseOrder()))
-                .limit(10)
-                .collect(Collectors.toList());
-        statistics.getGroups().setTopGroups(topGroups);
+            List<Integer> added = new ArrayList<>();
+            for (Integer id : idsResponse.response.items) {
+                if (!known.containsKey(id)) {
+                    added.add(id);
+                }
+            }
+            if (!added.isEmpty()) {
+                for (GroupsResponse.Group group : vkApiService.getGroupsById(added)) {
+                    known.put(group.id, group);
+                }
+            }
 
-        double avgSize = groups.stream()
-                .filter(group -> group.members_count != null)
-                .mapToInt(group -> group.members_count)
-                .average()
-                .orElse(0);
-        statistics.getGroups().setAvgSize(avgSize);
+            groups = new ArrayList<>(idsResponse.response.items.size());
+            for (Integer id : idsResponse.response.items) {
+                GroupsResponse.Group group = known.get(id);
+                if (group != null) {
+                    groups.add(group);
+                }
+            }
+            totalGroups = idsResponse.response.count;
 
-        Optional<GroupsResponse.Group> minGroup = groups.stream()
-                .filter(group -> group.members_count != null)
-                .min(Comparator.comparing(group -> group.members_count));
-        Optional<GroupsResponse.Group> maxGroup = groups.stream()
-                .filter(group -> group.members_count != null)
-                .max(Comparator.comparing(group -> group.members_count));
+            logger.info("Группы пользователя {}: +{} относительно снимка", userId, added.size());
+        } else {
+            GroupColumns groupColumns = vkApiService.getGroupColumns(userId);
+            groups = groupColumns;
+            totalGroups = groupColumns.getTotalCount();
+        }
 
-        statistics.getGroups().setMinGroup(minGroup.orElse(null));
-        statistics.getGroups().setMaxGroup(maxGroup.orElse(null));
+        current.captureGroups(groups, totalGroups);
+        statistics.getMetrics().putAll(metricEngine.evaluate(MetricSource.GROUPS, groups, totalGroups));
     }
 
-    private void calculatePostsStatistics(int userId, UserStatistics statistics) throws Exception {
+    private void calculateGroupAudienceOverlap(UserSnapshot current, UserStatistics statistics) {
+        int maxMembers = ConfigReader.getGroupMembersMaxCount();
+        List<GroupsResponse.Group> candidates = new ArrayList<>();
+        for (GroupsResponse.Group group : current.groups) {
+            if (group.members_count != null && group.members_count > 0) {
+                candidates.add(group);
+            }
+        }
+        candidates.sort(Comparator.comparingInt((GroupsResponse.Group group) -> group.members_count).reversed());
+
+        SortedIntSet friendIds = SortedIntSet.of(current.friendIds);
+        List<GroupOverlap> overlaps = new ArrayList<>();
+        for (GroupsResponse.Group group : candidates.subList(0, Math.min(candidates.size(),
+                ConfigReader.getGroupMembersMaxGroups()))) {
+            try {
+                SortedIntSet members = RequestScheduler.call(RequestPriority.BULK, 0,
+                        () -> vkApiService.getGroupMembers(group.id, maxMembers));
+                int common = members.intersectionSize(friendIds);
+                int coveredFriends = members.size() < group.members_count && members.size() > 0 ?
+                        friendIds.countAtMost(members.get(members.size() - 1)) : friendIds.size();
+                overlaps.add(new GroupOverlap(group.id, group.name, Math.max(group.members_count, members.size()),
+                        members.size(), common, coveredFriends > 0 ? (double) common / coveredFriends * 100 : 0.0));
+            } catch (Exception e) {
+                logger.warn("Не удалось получить участников сообщества {}: {}", group.id, e.getMessage());
+            }
+        }
+
+        overlaps.sort(Comparator.comparingInt(GroupOverlap::getFriendsInGroup).reversed());
+        statistics.getMetrics().put(BuiltInMetrics.GROUPS_FRIEND_OVERLAP, overlaps);
+    }
+
+    private void calculatePostsMetrics(int userId, UserSnapshot current, UserStatistics statistics)
+            throws Exception {
         WallResponse wallResponse = vkApiService.getWall(userId, ConfigReader.getStatisticsPostsCount());
-        if (wallResponse == null || wallResponse.response == null) {
+        if (wallResponse == null || wallResponse.response == null || wallResponse.response.items == null) {
             logger.warn("Не удалось получить посты для пользователя {}", userId);
             return;
         }
-
         List<WallResponse.Post> posts = wallResponse.response.items;
-        statistics.getPosts().setTotal(wallResponse.response.count);
-
-        List<PostWithActivity> postsWithActivity = posts.stream()
-                .map(post -> {
-                    int activity = (post.comments != null ? post.comments.count : 0) +
-                            (post.likes != null ? post.likes.count : 0) +
-                            (post.reposts != null ? post.reposts.count : 0);
-                    return new PostWithActivity(post, activity);
-                })
-                .collect(Collectors.toList());
-
-        double avgActivity = postsWithActivity.stream()
-                .mapToInt(PostWithActivity::getActivity)
-                .average()
-                .orElse(0);
-        statistics.getPosts().setAvgActivity(avgActivity);
-
-        List<WallResponse.Post> topPosts = postsWithActivity.stream()
-                .sorted(Comparator.comparing(PostWithActivity::getActivity).reversed())
-                .limit(3)
-                .map(PostWithActivity::getPost)
-                .collect(Collectors.toList());
-        statistics.getPosts().setTopPosts(topPosts);
-
-        double avgTextLength = posts.stream()
-                .filter(post -> post.text != null)
-                .mapToInt(post -> post.text.length())
-                .average()
-                .orElse(0);
-        statistics.getPosts().setAvgTextLength(avgTextLength);
-
-        Map<String, Long> postTypeDistribution = posts.stream()
-                .collect(Collectors.groupingBy(
-                        post -> post.post_type != null ? post.post_type : "unknown",
-                        Collectors.counting()
-                ));
-        statistics.getPosts().setPostTypeDistribution(postTypeDistribution);
+        int totalPosts = wallResponse.response.count != null ? wallResponse.response.count : posts.size();
+
+        current.capturePosts(posts, totalPosts);
+        statistics.getMetrics().putAll(metricEngine.evaluate(MetricSource.POSTS, posts, totalPosts));
     }
 
-    private static class PostWithActivity {
-        private final WallResponse.Post post;
-        private final int activity;
+    @SuppressWarnings("unchecked")
+    private void applyBuiltInMetrics(UserStatistics statistics) {
+        Map<String, Object> metrics = statistics.getMetrics();
 
-        public PostWithActivity(WallResponse.Post post, int activity) {
-            this.post = post;
-            this.activity = activity;
+        UserStatistics.FriendsStatistics friends = statistics.getFriends();
+        friends.setTotal((Integer) metrics.getOrDefault(BuiltInMetrics.FRIENDS_TOTAL, 0));
+        Map<String, Long> topCities = (Map<String, Long>) metrics.get(BuiltInMetrics.FRIENDS_TOP_CITIES);
+        if (topCities != null) {
+            friends.setTopCities(new ArrayList<>(topCities.entrySet()));
         }
+        friends.setClosedPercentage((Double) metrics.getOrDefault(BuiltInMetrics.FRIENDS_CLOSED_PERCENTAGE, 0.0));
+        friends.setAvgFriendsOfFriends((Double) metrics.getOrDefault(BuiltInMetrics.FRIENDS_AVG_FRIENDS_OF_FRIENDS, 0.0));
 
-        public WallResponse.Post getPost() {
-            return post;
-        }
+        UserStatistics.GroupsStatistics groups = statistics.getGroups();
+        groups.setTotal((Integer) metrics.getOrDefault(BuiltInMetrics.GROUPS_TOTAL, 0));
+        groups.setTopGroups((List<GroupsResponse.Group>) metrics.get(BuiltInMetrics.GROUPS_TOP));
+        groups.setAvgSize((Double) metrics.getOrDefault(BuiltInMetrics.GROUPS_AVG_SIZE, 0.0));
+        groups.setMinGroup((GroupsResponse.Group) metrics.get(BuiltInMetrics.GROUPS_MIN));
+        groups.setMaxGroup((GroupsResponse.Group) metrics.get(BuiltInMetrics.GROUPS_MAX));
 
-        public int getActivity() {
-            return activity;
-        }
+        UserStatistics.PostsStatistics posts = statistics.getPosts();
+        posts.setTotal((Integer) metrics.getOrDefault(BuiltInMetrics.POSTS_TOTAL, 0));
+        posts.setAvgActivity((Double) metrics.getOrDefault(BuiltInMetrics.POSTS_AVG_ACTIVITY, 0.0));
+        posts.setTopPosts((List<WallResponse.Post>) metrics.get(BuiltInMetrics.POSTS_TOP));
+        posts.setAvgTextLength((Double) metrics.getOrDefault(BuiltInMetrics.POSTS_AVG_TEXT_LENGTH, 0.0));
+        posts.setPostTypeDistribution((Map<String, Long>) metrics.get(BuiltInMetrics.POSTS_TYPE_DISTRIBUTION));
     }
-}
\ No newline at end of file
+}
@@ -4,14 +4,16 @@ import dto.GroupsResponse;
 import dto.WallResponse;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class UserStatistics {
     private UserInfo user;
-    private FriendsStatistics friends = new FriendsStatistics();
-    private GroupsStatistics groups = new GroupsStatistics();
-    private PostsStatistics posts = new PostsStatistics();
+    private transient FriendsStatistics friends = new FriendsStatistics();
+    private transient GroupsStatistics groups = new GroupsStatistics();
+    private transient PostsStatistics posts = new PostsStatistics();
+    private Map<String, Object> metrics = new LinkedHashMap<>();
     private Date generatedAt;
 
     public static class UserInfo {
@@ -203,6 +205,14 @@ public class UserStatistics {
         this.posts = posts;
     }
 
+    public Map<String, Object> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Map<String, Object> metrics) {
+        this.metrics = metrics;
+    }
+
     public Date getGeneratedAt() {
         return generatedAt;
     }
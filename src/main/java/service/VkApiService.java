@@ -1,81 +1,419 @@
 package service;
 
+import compact.CompactDecoder;
+import compact.FriendColumns;
+import compact.GroupColumns;
+import compact.UserColumns;
 import dto.*;
+import search.SearchPartition;
+import store.CrawlStore;
+import store.EntityType;
 import util.ConfigReader;
+import util.SortedIntSet;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 public class VkApiService {
     private static final Logger logger = LoggerFactory.getLogger(VkApiService.class);
-    private static final String API_URL = "https://api.vk.com/method/";
+    private static final String API_URL = ConfigReader.getApiUrl();
     private static final String TOKEN = ConfigReader.getToken();
     private static final String VERSION = ConfigReader.getApiVersion();
     private final HttpClient httpClient;
     private final Gson gson;
     private static final int MAX_RETRIES = 3;
-    private static final long BASE_DELAY_MS = 500;
+    private static final int USERS_GET_MAX_IDS = 1000;
+    private static final int EXECUTE_MAX_CALLS = 25;
+    private static final int GROUPS_GET_BY_ID_MAX_IDS = 500;
+    private static final int GROUP_MEMBERS_PAGE_SIZE = 1000;
+    private static final int LATENCY_WINDOW = 256;
+    private static final Set<Integer> SERVER_ERROR_CODES = Set.of(1, 10);
+    private static final int HEDGING_MIN_SAMPLES = 20;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong hedgedCount = new AtomicLong();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+    private final Duration requestTimeout = Duration.ofSeconds(ConfigReader.getRequestTimeoutSeconds());
+    private final boolean hedgingEnabled = ConfigReader.isRequestHedgingEnabled();
+    private final RateLimiter rateLimiter;
+    private final RequestScheduler scheduler;
+    private final ExecutorService requestExecutor;
+    private volatile CrawlStore crawlStore;
 
     public VkApiService() {
         this.httpClient = HttpClient.newHttpClient();
-        this.gson = new Gson();
+        this.gson = VkTypeAdapters.registerAll(new GsonBuilder()).create();
+        this.rateLimiter = new RateLimiter(ConfigReader.getRequestRatePerSecond());
+        Map<RequestPriority, Double> weights = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            weights.put(priority, ConfigReader.getSchedulerWeight(priority.name().toLowerCase()));
+        }
+        this.scheduler = new RequestScheduler(rateLimiter, weights);
+        this.requestExecutor = Executors.newFixedThreadPool(ConfigReader.getRequestParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "vk-api-request");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public UserSearchResponse searchUsers(int cityId, int offset, int count) throws Exception {
-        String url = API_URL + "users.search" +
-                "?city=" + cityId +
+        return searchUsers(SearchPartition.city(cityId), offset, count);
+    }
+
+    public UserSearchResponse searchUsers(SearchPartition partition, int offset, int count) throws Exception {
+        return executeRequestWithRetry(buildSearchUrl(partition, offset, count), UserSearchResponse.class);
+    }
+
+    private String buildSearchUrl(SearchPartition partition, int offset, int count) {
+        StringBuilder filters = new StringBuilder();
+        if (partition.hasAgeRange()) {
+            filters.append("&age_from=").append(partition.getAgeFrom())
+                    .append("&age_to=").append(partition.getAgeTo());
+        }
+        if (partition.getSex() != 0) {
+            filters.append("&sex=").append(partition.getSex());
+        }
+        if (partition.getBirthMonth() != 0) {
+            filters.append("&birth_month=").append(partition.getBirthMonth());
+        }
+
+        return API_URL + "users.search" +
+                "?city=" + partition.getCityId() +
+                filters +
                 "&offset=" + offset +
                 "&count=" + count +
                 "&fields=city,can_access_closed,is_closed" +
                 "&access_token=" + TOKEN +
                 "&v=" + VERSION;
+    }
 
-        return executeRequestWithRetry(url, UserSearchResponse.class);
+    public UserColumns searchUserColumns(SearchPartition partition, int offset, int count) throws Exception {
+        return executeRequestWithRetry(buildSearchUrl(partition, offset, count),
+                body -> CompactDecoder.decodeUserSearch(new StringReader(body)));
     }
 
     public FriendsResponse getFriends(int userId) throws Exception {
-        String url = API_URL + "friends.get" +
+        FriendsResponse response = executeRequestWithRetry(buildFriendsUrl(userId), FriendsResponse.class);
+        store(EntityType.FRIENDS, userId, response);
+        return response;
+    }
+
+    public FriendColumns getFriendColumns(int userId) throws Exception {
+        FriendColumns columns = executeRequestWithRetry(buildFriendsUrl(userId),
+                body -> CompactDecoder.decodeFriends(new StringReader(body)));
+        if (crawlStore != null) {
+            FriendsResponse response = new FriendsResponse();
+            response.response = new FriendsResponse.Response();
+            response.response.count = columns.getTotalCount();
+            response.response.items = columns;
+            store(EntityType.FRIENDS, userId, response);
+        }
+        return columns;
+    }
+
+    private String buildFriendsUrl(int userId) {
+        return API_URL + "friends.get" +
                 "?user_id=" + userId +
                 "&fields=city,counters" +
                 "&access_token=" + TOKEN +
                 "&v=" + VERSION;
-
-        return executeRequestWithRetry(url, FriendsResponse.class);
     }
 
     public GroupsResponse getGroups(int userId) throws Exception {
-        String url = API_URL + "groups.get" +
+        GroupsResponse response = executeRequestWithRetry(buildGroupsUrl(userId), GroupsResponse.class);
+        store(EntityType.GROUPS, userId, response);
+        return response;
+    }
+
+    public GroupColumns getGroupColumns(int userId) throws Exception {
+        GroupColumns columns = executeRequestWithRetry(buildGroupsUrl(userId),
+                body -> CompactDecoder.decodeGroups(new StringReader(body)));
+        if (crawlStore != null) {
+            GroupsResponse response = new GroupsResponse();
+            response.response = new GroupsResponse.Response();
+            response.response.count = columns.getTotalCount();
+            response.response.items = columns;
+            store(EntityType.GROUPS, userId, response);
+        }
+        return columns;
+    }
+
+    private String buildGroupsUrl(int userId) {
+        return API_URL + "groups.get" +
                 "?user_id=" + userId +
                 "&extended=1" +
                 "&fields=members_count" +
                 "&access_token=" + TOKEN +
                 "&v=" + VERSION;
+    }
+
+    public FriendIdsResponse getFriendIds(int userId) throws Exception {
+        String url = API_URL + "friends.get" +
+                "?user_id=" + userId +
+                "&access_token=" + TOKEN +
+                "&v=" + VERSION;
+
+        return executeRequestWithRetry(url, FriendIdsResponse.class);
+    }
+
+    public List<FriendsResponse.Friend> getUsers(List<Integer> userIds, String fields) throws Exception {
+        List<Future<UsersResponse>> futures = new ArrayList<>();
+        for (int from = 0; from < userIds.size(); from += USERS_GET_MAX_IDS) {
+            List<Integer> chunk = new ArrayList<>(userIds.subList(from, Math.min(from + USERS_GET_MAX_IDS, userIds.size())));
+            String url = API_URL + "users.get" +
+                    "?user_ids=" + joinIds(chunk) +
+                    "&fields=" + fields +
+                    "&access_token=" + TOKEN +
+                    "&v=" + VERSION;
+            futures.add(requestExecutor.submit(RequestScheduler.propagate(
+                    () -> executeRequestWithRetry(url, UsersResponse.class))));
+        }
+
+        List<FriendsResponse.Friend> users = new ArrayList<>(userIds.size());
+        for (Future<UsersResponse> future : futures) {
+            try {
+                UsersResponse response = future.get();
+                if (response != null && response.response != null) {
+                    users.addAll(response.response);
+                }
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+        return users;
+    }
+
+    public Map<Integer, Integer> getFriendCounts(List<Integer> userIds) throws Exception {
+        List<Future<Map<Integer, Integer>>> futures = new ArrayList<>();
+        for (int from = 0; from < userIds.size(); from += EXECUTE_MAX_CALLS) {
+            List<Integer> chunk = new ArrayList<>(userIds.subList(from, Math.min(from + EXECUTE_MAX_CALLS, userIds.size())));
+            futures.add(requestExecutor.submit(RequestScheduler.propagate(() -> getFriendCountsChunk(chunk))));
+        }
+
+        Map<Integer, Integer> counts = new HashMap<>();
+        int failed = 0;
+        for (Future<Map<Integer, Integer>> future : futures) {
+            try {
+                counts.putAll(future.get());
+            } catch (ExecutionException e) {
+                failed++;
+                logger.warn("Не удалось получить количество друзей для пакета: {}", e.getCause().getMessage());
+            }
+        }
+        if (failed > 0) {
+            logger.warn("Количество друзей не получено для {} из {} пакетов", failed, futures.size());
+        }
+        return counts;
+    }
+
+    private Map<Integer, Integer> getFriendCountsChunk(List<Integer> userIds) throws Exception {
+        String code = "var ids=[" + joinIds(userIds) + "];var r=[];var i=0;" +
+                "while(i<ids.length){var f=API.friends.get({\"user_id\":ids[i],\"count\":1});" +
+                "if(f){r.push(f.count);}else{r.push(-1);}i=i+1;}return r;";
+        String url = API_URL + "execute" +
+                "?code=" + URLEncoder.encode(code, StandardCharsets.UTF_8) +
+                "&access_token=" + TOKEN +
+                "&v=" + VERSION;
+
+        ExecuteCountsResponse response = executeRequestWithRetry(url, ExecuteCountsResponse.class);
+        Map<Integer, Integer> counts = new HashMap<>();
+        if (response != null && response.response != null) {
+            for (int i = 0; i < Math.min(userIds.size(), response.response.size()); i++) {
+                Integer count = response.response.get(i);
+                if (count != null && count >= 0) {
+                    counts.put(userIds.get(i), count);
+                }
+            }
+        }
+        return counts;
+    }
+
+    public GroupIdsResponse getGroupIds(int userId) throws Exception {
+        String url = API_URL + "groups.get" +
+                "?user_id=" + userId +
+                "&access_token=" + TOKEN +
+                "&v=" + VERSION;
+
+        return executeRequestWithRetry(url, GroupIdsResponse.class);
+    }
+
+    public List<GroupsResponse.Group> getGroupsById(List<Integer> groupIds) throws Exception {
+        List<GroupsResponse.Group> groups = new ArrayList<>(groupIds.size());
+        for (int from = 0; from < groupIds.size(); from += GROUPS_GET_BY_ID_MAX_IDS) {
+            List<Integer> chunk = groupIds.subList(from, Math.min(from + GROUPS_GET_BY_ID_MAX_IDS, groupIds.size()));
+            String url = API_URL + "groups.getById" +
+                    "?group_ids=" + joinIds(chunk) +
+                    "&fields=members_count" +
+                    "&access_token=" + TOKEN +
+                    "&v=" + VERSION;
+
+            GroupsByIdResponse response = executeRequestWithRetry(url, GroupsByIdResponse.class);
+            if (response != null && response.response != null && response.response.groups != null) {
+                groups.addAll(response.response.groups);
+            }
+        }
+        return groups;
+    }
+
+    public SortedIntSet getGroupMembers(int groupId, int maxMembers) throws Exception {
+        long startTime = System.currentTimeMillis();
+        long requestsBefore = requestCount.get();
+        SortedIntSet.Builder members = new SortedIntSet.Builder();
+        String firstPageUrl = API_URL + "groups.getMembers" +
+                "?group_id=" + groupId +
+                "&offset=0" +
+                "&count=" + (maxMembers > 0 ? Math.min(GROUP_MEMBERS_PAGE_SIZE, maxMembers) : GROUP_MEMBERS_PAGE_SIZE) +
+                "&sort=id_asc" +
+                "&access_token=" + TOKEN +
+                "&v=" + VERSION;
+        int total = executeRequestWithRetry(firstPageUrl,
+                body -> CompactDecoder.decodeIds(new StringReader(body), members));
+        int limit = maxMembers > 0 ? Math.min(total, maxMembers) : total;
+
+        int partitionSize = GROUP_MEMBERS_PAGE_SIZE * EXECUTE_MAX_CALLS;
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int offset = GROUP_MEMBERS_PAGE_SIZE; offset < limit; offset += partitionSize) {
+            int from = offset;
+            int pages = (Math.min(partitionSize, limit - offset) + GROUP_MEMBERS_PAGE_SIZE - 1) / GROUP_MEMBERS_PAGE_SIZE;
+            futures.add(requestExecutor.submit(RequestScheduler.propagate(
+                    () -> getGroupMembersPartition(groupId, from, pages, members))));
+        }
+
+        for (Future<Integer> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
 
-        return executeRequestWithRetry(url, GroupsResponse.class);
+        SortedIntSet result = members.build();
+        logger.info("Участники сообщества {}: {} из {} за {} запросов ({}ms)", groupId, result.size(), total,
+                requestCount.get() - requestsBefore, System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private int getGroupMembersPartition(int groupId, int offset, int pages, SortedIntSet.Builder members) throws Exception {
+        String code = "var r=[];var o=" + offset + ";var i=0;" +
+                "while(i<" + pages + "){var m=API.groups.getMembers({\"group_id\":" + groupId +
+                ",\"offset\":o,\"count\":" + GROUP_MEMBERS_PAGE_SIZE + ",\"sort\":\"id_asc\"});" +
+                "if(!m){return r;}r=r+m.items;o=o+" + GROUP_MEMBERS_PAGE_SIZE + ";i=i+1;}return r;";
+        String url = API_URL + "execute" +
+                "?code=" + URLEncoder.encode(code, StandardCharsets.UTF_8) +
+                "&access_token=" + TOKEN +
+                "&v=" + VERSION;
+
+        return executeRequestWithRetry(url, body -> CompactDecoder.decodeIds(new StringReader(body), members));
     }
 
     public WallResponse getWall(int userId, int count) throws Exception {
+        return getWall(userId, 0, count);
+    }
+
+    public WallResponse getWall(int userId, int offset, int count) throws Exception {
         String url = API_URL + "wall.get" +
                 "?owner_id=" + userId +
+                "&offset=" + offset +
                 "&count=" + count +
                 "&filter=owner" +
                 "&access_token=" + TOKEN +
                 "&v=" + VERSION;
 
-        return executeRequestWithRetry(url, WallResponse.class);
+        WallResponse response = executeRequestWithRetry(url, WallResponse.class);
+        if (offset == 0) {
+            store(EntityType.POSTS, userId, response);
+        }
+        return response;
+    }
+
+    public void setCrawlStore(CrawlStore crawlStore) {
+        this.crawlStore = crawlStore;
+    }
+
+    private void store(EntityType type, int userId, Object response) {
+        CrawlStore store = crawlStore;
+        if (store == null || response == null) {
+            return;
+        }
+        try {
+            store.append(type, userId, response);
+        } catch (Exception e) {
+            logger.warn("Не удалось сохранить {} пользователя {} в хранилище: {}", type, userId, e.getMessage());
+        }
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getHedgedCount() {
+        return hedgedCount.get();
+    }
+
+    public Map<String, CircuitBreaker.State> getCircuitStates() {
+        Map<String, CircuitBreaker.State> states = new HashMap<>();
+        circuitBreakers.forEach((method, breaker) -> states.put(method, breaker.getState()));
+        return states;
+    }
+
+    private static String joinIds(List<Integer> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
     }
 
     private <T> T executeRequestWithRetry(String url, Class<T> responseType) throws Exception {
+        return executeRequestWithRetry(url, body -> gson.fromJson(body, responseType));
+    }
+
+    private <T> T executeRequestWithRetry(String url, ResponseDecoder<T> decoder) throws Exception {
         int retryCount = 0;
         while (retryCount <= MAX_RETRIES) {
             try {
-                return executeRequest(url, responseType);
+                return executeRequest(url, decoder);
+            } catch (VkHttpException e) {
+                if (!e.isRetryable() || retryCount >= MAX_RETRIES) {
+                    throw e;
+                }
+                retryCount++;
+                long delayMs = calculateBackoffDelay(retryCount, 0);
+                logger.warn("HTTP Error [{}]. Retry {}/{} after {} ms", e.getStatusCode(), retryCount, MAX_RETRIES, delayMs);
+                TimeUnit.MILLISECONDS.sleep(delayMs);
             } catch (VkApiException e) {
                 if ((e.getErrorCode() == 6 || e.getErrorCode() == 9) && retryCount < MAX_RETRIES) {
                     retryCount++;
@@ -86,6 +424,14 @@ public class VkApiService {
                 } else {
                     throw e;
                 }
+            } catch (IOException e) {
+                if (retryCount >= MAX_RETRIES) {
+                    throw e;
+                }
+                retryCount++;
+                long delayMs = calculateBackoffDelay(retryCount, 0);
+                logger.warn("Network error: {}. Retry {}/{} after {} ms", e.toString(), retryCount, MAX_RETRIES, delayMs);
+                TimeUnit.MILLISECONDS.sleep(delayMs);
             }
         }
         throw new VkApiException("Max retries exceeded", 0);
@@ -96,15 +442,38 @@ public class VkApiService {
         return baseDelay * (long) Math.pow(2, retryCount - 1);
     }
 
-    private <T> T executeRequest(String url, Class<T> responseType) throws Exception {
-        long startTime = System.currentTimeMillis();
-
+    private <T> T executeRequest(String url, ResponseDecoder<T> decoder) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
+                .timeout(requestTimeout)
                 .build();
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        String method = methodName(url);
+        CircuitBreaker breaker = circuitBreakers.computeIfAbsent(method, m -> new CircuitBreaker(m,
+                ConfigReader.getCircuitFailureThreshold(),
+                TimeUnit.SECONDS.toMillis(ConfigReader.getCircuitOpenSeconds())));
+        if (breaker.isRejecting()) {
+            throw new CircuitOpenException(method);
+        }
+        scheduler.acquire();
+        breaker.acquire();
+
+        LatencyTracker latency = latencyTrackers.computeIfAbsent(method, m -> new LatencyTracker(LATENCY_WINDOW));
+        long startTime = System.currentTimeMillis();
+        HttpResponse<String> response;
+        try {
+            response = hedgingEnabled ? sendHedged(method, request, latency)
+                    : httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            breaker.recordFailure();
+            throw e;
+        } catch (Exception e) {
+            breaker.release();
+            throw e;
+        }
+        requestCount.incrementAndGet();
         long duration = System.currentTimeMillis() - startTime;
+        latency.record(duration);
 
         logger.info("GET {} ({}ms, {} chars)",
                 url.substring(0, url.indexOf("access_token")) + "...",
@@ -112,28 +481,102 @@ public class VkApiService {
 
         if (response.statusCode() != 200) {
             logger.error("HTTP Error: {}", response.statusCode());
-            throw new RuntimeException("HTTP error: " + response.statusCode());
+            VkHttpException error = new VkHttpException(response.statusCode());
+            if (error.isRetryable()) {
+                breaker.recordFailure();
+            } else {
+                breaker.release();
+            }
+            throw error;
         }
 
         if (response.body().contains("\"error\"")) {
-            VkApiError error = gson.fromJson(response.body(), VkApiError.class);
-            logger.error("VK API Error [{}]: {}",
-                    error.error.error_code,
-                    error.error.error_msg);
-            throw new VkApiException(error.error.error_msg, error.error.error_code);
+            ErrorResponse error = gson.fromJson(response.body(), ErrorResponse.class);
+            if (error.error != null) {
+                if (SERVER_ERROR_CODES.contains(error.error.error_code)) {
+                    breaker.recordFailure();
+                } else {
+                    breaker.recordSuccess();
+                }
+                logger.error("VK API Error [{}]: {}",
+                        error.error.error_code,
+                        error.error.error_msg);
+                throw new VkApiException(error.error.error_msg, error.error.error_code);
+            }
+        }
+
+        T result;
+        try {
+            result = decoder.decode(response.body());
+        } catch (Exception e) {
+            breaker.recordFailure();
+            throw e;
+        }
+        breaker.recordSuccess();
+        return result;
+    }
+
+    private HttpResponse<String> sendHedged(String method, HttpRequest request, LatencyTracker latency) throws Exception {
+        CompletableFuture<HttpResponse<String>> primary = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        if (latency.size() < HEDGING_MIN_SAMPLES) {
+            return await(primary);
+        }
+
+        long delayMs = Math.max(ConfigReader.getRequestHedgingMinDelayMs(),
+                latency.percentile(ConfigReader.getRequestHedgingPercentile()));
+        try {
+            return primary.get(delayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (hedgedCount.get() >= ConfigReader.getRequestHedgingMaxRatio() * requestCount.get()
+                    || !rateLimiter.tryAcquire()) {
+                return await(primary);
+            }
+        } catch (ExecutionException e) {
+            return await(primary);
         }
 
-        TimeUnit.MILLISECONDS.sleep(BASE_DELAY_MS);
+        hedgedCount.incrementAndGet();
+        requestCount.incrementAndGet();
+        logger.info("Дублирующий запрос {} после {}ms ожидания", method, delayMs);
+        CompletableFuture<HttpResponse<String>> hedge = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
 
-        return gson.fromJson(response.body(), responseType);
+        CompletableFuture<HttpResponse<String>> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((response, error) -> completeFirst(first, failures, response, error));
+        hedge.whenComplete((response, error) -> completeFirst(first, failures, response, error));
+        return await(first);
     }
 
-    private static class VkApiError {
-        public Error error;
+    private static void completeFirst(CompletableFuture<HttpResponse<String>> first, AtomicInteger failures,
+                                      HttpResponse<String> response, Throwable error) {
+        if (error == null) {
+            first.complete(response);
+        } else if (failures.incrementAndGet() == 2) {
+            first.completeExceptionally(error);
+        }
+    }
 
-        public static class Error {
-            public int error_code;
-            public String error_msg;
+    private static HttpResponse<String> await(CompletableFuture<HttpResponse<String>> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
         }
     }
+
+    private static String methodName(String url) {
+        int end = url.indexOf('?', API_URL.length());
+        return end < 0 ? url.substring(API_URL.length()) : url.substring(API_URL.length(), end);
+    }
+
+    private interface ResponseDecoder<T> {
+        T decode(String body) throws Exception;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package service;
+
+public class VkHttpException extends VkApiException {
+    private final int statusCode;
+
+    public VkHttpException(int statusCode) {
+        super("HTTP error: " + statusCode, 0);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,62 @@
+package sketch;
+
+import dto.FriendsResponse;
+
+import java.util.Date;
+import java.util.List;
+
+public class FriendOverlapAggregator {
+    private static final long MINHASH_SEED = 0x5eed5eedL;
+
+    private final MinHash minHash;
+    private final LshIndex lshIndex;
+    private final HyperLogLog distinctFriends;
+    private final HyperLogLog distinctCities;
+    private final double similarityThreshold;
+    private long totalFriendLinks;
+
+    public FriendOverlapAggregator(int signatureSize, int bands, int hllPrecision, double similarityThreshold) {
+        this.minHash = new MinHash(signatureSize, MINHASH_SEED);
+        this.lshIndex = new LshIndex(signatureSize, bands);
+        this.distinctFriends = new HyperLogLog(hllPrecision);
+        this.distinctCities = new HyperLogLog(hllPrecision);
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    public void addUser(int userId, FriendsResponse friendsResponse) {
+        if (friendsResponse == null || friendsResponse.response == null || friendsResponse.response.items == null
+                || friendsResponse.response.items.isEmpty()) {
+            return;
+        }
+
+        List<FriendsResponse.Friend> friends = friendsResponse.response.items;
+        int[] friendIds = new int[friends.size()];
+        for (int i = 0; i < friends.size(); i++) {
+            FriendsResponse.Friend friend = friends.get(i);
+            friendIds[i] = friend.id;
+            distinctFriends.addInt(friend.id);
+            if (friend.city != null && friend.city.id != null) {
+                distinctCities.addInt(friend.city.id);
+            }
+        }
+
+        lshIndex.add(userId, minHash.signature(friendIds));
+        synchronized (this) {
+            totalFriendLinks += friendIds.length;
+        }
+    }
+
+    public FriendOverlapReport buildReport() {
+        FriendOverlapReport report = new FriendOverlapReport();
+        report.setUsers(lshIndex.size());
+        synchronized (this) {
+            report.setTotalFriendLinks(totalFriendLinks);
+        }
+        report.setDistinctFriends(distinctFriends.estimate());
+        report.setDistinctCities(distinctCities.estimate());
+        report.setSimilarityThreshold(similarityThreshold);
+        report.setSimilarPairs(lshIndex.findSimilarPairs(similarityThreshold));
+        report.setGeneratedAt(new Date());
+        return report;
+    }
+}
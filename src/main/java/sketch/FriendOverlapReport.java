@@ -0,0 +1,70 @@
+package sketch;
+
+import java.util.Date;
+import java.util.List;
+
+public class FriendOverlapReport {
+    private int users;
+    private long totalFriendLinks;
+    private long distinctFriends;
+    private long distinctCities;
+    private double similarityThreshold;
+    private List<LshIndex.SimilarPair> similarPairs;
+    private Date generatedAt;
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public long getTotalFriendLinks() {
+        return totalFriendLinks;
+    }
+
+    public void setTotalFriendLinks(long totalFriendLinks) {
+        this.totalFriendLinks = totalFriendLinks;
+    }
+
+    public long getDistinctFriends() {
+        return distinctFriends;
+    }
+
+    public void setDistinctFriends(long distinctFriends) {
+        this.distinctFriends = distinctFriends;
+    }
+
+    public long getDistinctCities() {
+        return distinctCities;
+    }
+
+    public void setDistinctCities(long distinctCities) {
+        this.distinctCities = distinctCities;
+    }
+
+    public double getSimilarityThreshold() {
+        return similarityThreshold;
+    }
+
+    public void setSimilarityThreshold(double similarityThreshold) {
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    public List<LshIndex.SimilarPair> getSimilarPairs() {
+        return similarPairs;
+    }
+
+    public void setSimilarPairs(List<LshIndex.SimilarPair> similarPairs) {
+        this.similarPairs = similarPairs;
+    }
+
+    public Date getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(Date generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -0,0 +1,99 @@
+package sketch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class LshIndex {
+    private final int bands;
+    private final int rows;
+    private final List<Map<Long, List<Integer>>> buckets;
+    private final Map<Integer, int[]> signatures = new LinkedHashMap<>();
+
+    public LshIndex(int signatureSize, int bands) {
+        if (bands <= 0 || signatureSize % bands != 0) {
+            throw new IllegalArgumentException("Размер сигнатуры " + signatureSize + " не делится на " + bands + " полос");
+        }
+        this.bands = bands;
+        this.rows = signatureSize / bands;
+        this.buckets = new ArrayList<>(bands);
+        for (int i = 0; i < bands; i++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    public synchronized void add(int id, int[] signature) {
+        if (signatures.put(id, signature) != null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets.get(band).computeIfAbsent(bandHash(signature, band), key -> new ArrayList<>()).add(id);
+        }
+    }
+
+    public synchronized int size() {
+        return signatures.size();
+    }
+
+    public synchronized List<SimilarPair> findSimilarPairs(double threshold) {
+        Set<Long> checked = new HashSet<>();
+        List<SimilarPair> pairs = new ArrayList<>();
+
+        for (Map<Long, List<Integer>> bandBuckets : buckets) {
+            for (List<Integer> bucket : bandBuckets.values()) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    for (int j = i + 1; j < bucket.size(); j++) {
+                        int first = Math.min(bucket.get(i), bucket.get(j));
+                        int second = Math.max(bucket.get(i), bucket.get(j));
+                        if (!checked.add(((long) first << 32) | (second & 0xffffffffL))) {
+                            continue;
+                        }
+                        double similarity = MinHash.estimateJaccard(signatures.get(first), signatures.get(second));
+                        if (similarity >= threshold) {
+                            pairs.add(new SimilarPair(first, second, similarity));
+                        }
+                    }
+                }
+            }
+        }
+
+        pairs.sort((a, b) -> Double.compare(b.getSimilarity(), a.getSimilarity()));
+        return pairs;
+    }
+
+    private long bandHash(int[] signature, int band) {
+        long hash = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = Hashing.mix64(hash * 31 + signature[i]);
+        }
+        return hash;
+    }
+
+    public static class SimilarPair {
+        private final int firstUserId;
+        private final int secondUserId;
+        private final double similarity;
+
+        public SimilarPair(int firstUserId, int secondUserId, double similarity) {
+            this.firstUserId = firstUserId;
+            this.secondUserId = secondUserId;
+            this.similarity = similarity;
+        }
+
+        public int getFirstUserId() {
+            return firstUserId;
+        }
+
+        public int getSecondUserId() {
+            return secondUserId;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+}
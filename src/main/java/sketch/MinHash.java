@@ -0,0 +1,49 @@
+package sketch;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class MinHash {
+    private final long[] seeds;
+
+    public MinHash(int signatureSize, long seed) {
+        Random random = new Random(seed);
+        this.seeds = new long[signatureSize];
+        for (int i = 0; i < signatureSize; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    public int getSignatureSize() {
+        return seeds.length;
+    }
+
+    public int[] signature(int[] elements) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        for (int element : elements) {
+            long base = Hashing.mix64(element);
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) (Hashing.mix64(base ^ seeds[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public static double estimateJaccard(int[] first, int[] second) {
+        if (first.length != second.length) {
+            throw new IllegalArgumentException("Сигнатуры разной длины: " + first.length + " и " + second.length);
+        }
+        int matches = 0;
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] == second[i]) {
+                matches++;
+            }
+        }
+        return first.length > 0 ? (double) matches / first.length : 0;
+    }
+}
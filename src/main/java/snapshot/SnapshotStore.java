@@ -0,0 +1,59 @@
+package snapshot;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import dto.VkTypeAdapters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+public class SnapshotStore {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotStore.class);
+    private final Path directory;
+    private final Gson gson;
+
+    public SnapshotStore(String directory) {
+        this.directory = Paths.get(directory);
+        this.gson = VkTypeAdapters.registerAll(new GsonBuilder()).create();
+    }
+
+    public UserSnapshot load(int userId) {
+        Path file = snapshotFile(userId);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, UserSnapshot.class);
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Не удалось прочитать снимок {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    public void save(UserSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        Path file = snapshotFile(snapshot.userId);
+        Path tempFile = directory.resolve(file.getFileName() + ".tmp");
+
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            gson.toJson(snapshot, writer);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        logger.info("Снимок пользователя {} сохранен: {}", snapshot.userId, file);
+    }
+
+    private Path snapshotFile(int userId) {
+        return directory.resolve(String.format("user_%d.json", userId));
+    }
+}
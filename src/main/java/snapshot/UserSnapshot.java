@@ -0,0 +1,129 @@
+package snapshot;
+
+import dto.FriendsResponse;
+import dto.GroupsResponse;
+import dto.WallResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UserSnapshot {
+    public int userId;
+    public long createdAt;
+
+    public Integer friendsCount;
+    public int[] friendIds;
+    public int[] friendCityIds;
+    public int[] friendFriendsCounts;
+    public int[] closedFriendIds;
+    public int[] accessibleFriendIds;
+    public Map<Integer, String> deactivatedFriends;
+    public Map<Integer, String> cityTitles;
+
+    public Integer groupsCount;
+    public List<GroupsResponse.Group> groups;
+
+    public Integer postsCount;
+    public List<WallResponse.Post> posts;
+
+    public UserSnapshot() {
+    }
+
+    public UserSnapshot(int userId) {
+        this.userId = userId;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public boolean hasFriends() {
+        return friendIds != null;
+    }
+
+    public boolean hasGroups() {
+        return groups != null;
+    }
+
+    public boolean hasPosts() {
+        return posts != null;
+    }
+
+    public void captureFriends(List<FriendsResponse.Friend> friends, int count) {
+        friendsCount = count;
+        friendIds = new int[friends.size()];
+        friendCityIds = new int[friends.size()];
+        friendFriendsCounts = new int[friends.size()];
+        cityTitles = new HashMap<>();
+        deactivatedFriends = new HashMap<>();
+        List<Integer> closed = new ArrayList<>();
+        List<Integer> accessible = new ArrayList<>();
+
+        for (int i = 0; i < friends.size(); i++) {
+            FriendsResponse.Friend friend = friends.get(i);
+            friendIds[i] = friend.id;
+            if (friend.city != null && friend.city.id != null) {
+                friendCityIds[i] = friend.city.id;
+                cityTitles.putIfAbsent(friend.city.id, friend.city.title);
+            } else {
+                friendCityIds[i] = -1;
+            }
+            friendFriendsCounts[i] = friend.counters != null && friend.counters.friends != null ?
+                    friend.counters.friends : -1;
+            if (friend.is_closed != null && friend.is_closed) {
+                closed.add(friend.id);
+            }
+            if (friend.can_access_closed != null && friend.can_access_closed) {
+                accessible.add(friend.id);
+            }
+            if (friend.deactivated != null) {
+                deactivatedFriends.put(friend.id, friend.deactivated);
+            }
+        }
+        closedFriendIds = closed.stream().mapToInt(Integer::intValue).toArray();
+        accessibleFriendIds = accessible.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public Map<Integer, FriendsResponse.Friend> restoreFriends() {
+        Map<Integer, Boolean> closed = new HashMap<>();
+        for (int id : closedFriendIds) {
+            closed.put(id, Boolean.TRUE);
+        }
+        Map<Integer, Boolean> accessible = new HashMap<>();
+        if (accessibleFriendIds != null) {
+            for (int id : accessibleFriendIds) {
+                accessible.put(id, Boolean.TRUE);
+            }
+        }
+
+        Map<Integer, FriendsResponse.Friend> friends = new LinkedHashMap<>();
+        for (int i = 0; i < friendIds.length; i++) {
+            FriendsResponse.Friend friend = new FriendsResponse.Friend();
+            friend.id = friendIds[i];
+            friend.is_closed = closed.getOrDefault(friendIds[i], Boolean.FALSE);
+            friend.can_access_closed = accessible.getOrDefault(friendIds[i], Boolean.FALSE);
+            friend.deactivated = deactivatedFriends != null ? deactivatedFriends.get(friendIds[i]) : null;
+            if (friendCityIds[i] >= 0) {
+                friend.city = new FriendsResponse.Friend.City();
+                friend.city.id = friendCityIds[i];
+                friend.city.title = cityTitles.get(friendCityIds[i]);
+            }
+            if (friendFriendsCounts[i] >= 0) {
+                friend.counters = new FriendsResponse.Friend.Counters();
+                friend.counters.friends = friendFriendsCounts[i];
+            }
+            friends.put(friend.id, friend);
+        }
+        return friends;
+    }
+
+    public void captureGroups(List<GroupsResponse.Group> groups, int count) {
+        this.groupsCount = count;
+        this.groups = new ArrayList<>(groups);
+    }
+
+    public void capturePosts(List<WallResponse.Post> posts, int count) {
+        this.postsCount = count;
+        this.posts = new ArrayList<>(posts);
+    }
+}
@@ -0,0 +1,85 @@
+package spill;
+
+import dto.UserSearchResponse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+final class RunFile {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private RunFile() {
+    }
+
+    static Writer writer(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    static Reader reader(Path path) throws IOException {
+        return new Reader(path);
+    }
+
+    static final class Writer implements Closeable {
+        private final DataOutputStream output;
+        private int lastId;
+        private int written;
+
+        private Writer(Path path) throws IOException {
+            this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        }
+
+        boolean writeUnique(UserSearchResponse.User user) throws IOException {
+            if (written > 0 && user.id == lastId) {
+                return false;
+            }
+            UserRecordCodec.write(output, user);
+            lastId = user.id;
+            written++;
+            return true;
+        }
+
+        int getWritten() {
+            return written;
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+    }
+
+    static final class Reader implements Closeable {
+        private final DataInputStream input;
+        private UserSearchResponse.User current;
+
+        private Reader(Path path) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+            advance();
+        }
+
+        UserSearchResponse.User peek() {
+            return current;
+        }
+
+        UserSearchResponse.User next() throws IOException {
+            UserSearchResponse.User user = current;
+            advance();
+            return user;
+        }
+
+        private void advance() throws IOException {
+            current = UserRecordCodec.read(input);
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
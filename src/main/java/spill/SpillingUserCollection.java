@@ -0,0 +1,267 @@
+package spill;
+
+import compact.UserColumns;
+import dto.UserSearchResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+public class SpillingUserCollection extends AbstractCollection<UserSearchResponse.User> implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SpillingUserCollection.class);
+    private static final int ESTIMATED_ROW_BYTES = 96;
+    private static final int MIN_ROWS_IN_MEMORY = 1024;
+    private static final int MERGE_FAN_IN = 64;
+
+    private final Path directory;
+    private final int maxRowsInMemory;
+    private final List<Path> runs = new ArrayList<>();
+    private UserColumns buffer;
+    private UserColumns sorted;
+    private Path merged;
+    private int added;
+    private int uniqueCount;
+    private int runSequence;
+    private boolean finished;
+
+    public SpillingUserCollection(Path parentDirectory, long memoryBudgetBytes) throws IOException {
+        Files.createDirectories(parentDirectory);
+        this.directory = Files.createTempDirectory(parentDirectory, "users-");
+        this.maxRowsInMemory = (int) Math.max(MIN_ROWS_IN_MEMORY,
+                Math.min(Integer.MAX_VALUE - 8, memoryBudgetBytes / ESTIMATED_ROW_BYTES));
+        this.buffer = new UserColumns(Math.min(maxRowsInMemory, 16384));
+    }
+
+    @Override
+    public boolean add(UserSearchResponse.User user) {
+        if (finished) {
+            throw new IllegalStateException("Collection is already finished");
+        }
+        buffer.add(user);
+        added++;
+        if (buffer.size() >= maxRowsInMemory) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return finished ? uniqueCount : added;
+    }
+
+    public boolean isSpilled() {
+        return !runs.isEmpty();
+    }
+
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        if (runs.isEmpty()) {
+            sorted = new UserColumns(buffer.size());
+            UserSearchResponse.User last = null;
+            for (int row : sortedRows(buffer)) {
+                UserSearchResponse.User user = buffer.get(row);
+                if (last == null || !last.id.equals(user.id)) {
+                    sorted.add(user);
+                    last = user;
+                }
+            }
+            buffer = null;
+            uniqueCount = sorted.size();
+            return;
+        }
+
+        spill();
+        buffer = null;
+        long startTime = System.currentTimeMillis();
+        while (runs.size() > 1) {
+            List<Path> pending = new ArrayList<>(runs);
+            runs.clear();
+            for (int from = 0; from < pending.size(); from += MERGE_FAN_IN) {
+                runs.add(mergeRuns(pending.subList(from, Math.min(from + MERGE_FAN_IN, pending.size()))));
+            }
+        }
+        merged = runs.get(0);
+        try (RunFile.Reader reader = RunFile.reader(merged)) {
+            int count = 0;
+            while (reader.next() != null) {
+                count++;
+            }
+            uniqueCount = count;
+        }
+        logger.info("Слияние файлов пользователей завершено за {}ms: {} уникальных из {}",
+                System.currentTimeMillis() - startTime, uniqueCount, added);
+    }
+
+    @Override
+    public Iterator<UserSearchResponse.User> iterator() {
+        try {
+            finish();
+            if (merged == null) {
+                return sorted.iterator();
+            }
+            return new RunIterator(RunFile.reader(merged));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void closeIterator(Iterator<?> iterator) {
+        if (iterator instanceof Closeable) {
+            try {
+                ((Closeable) iterator).close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        sorted = null;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private void spill() throws IOException {
+        if (buffer.size() == 0) {
+            return;
+        }
+
+        Path run = directory.resolve(String.format("run_%05d.bin", runSequence++));
+        int written;
+        try (RunFile.Writer writer = RunFile.writer(run)) {
+            for (int row : sortedRows(buffer)) {
+                writer.writeUnique(buffer.get(row));
+            }
+            written = writer.getWritten();
+        }
+        runs.add(run);
+        logger.info("Буфер пользователей сброшен на диск: {} записей в {}", written, run.getFileName());
+        buffer = new UserColumns(Math.min(maxRowsInMemory, 16384));
+    }
+
+    private Path mergeRuns(List<Path> inputs) throws IOException {
+        if (inputs.size() == 1) {
+            return inputs.get(0);
+        }
+
+        Path output = directory.resolve(String.format("run_%05d.bin", runSequence++));
+        List<RunFile.Reader> readers = new ArrayList<>(inputs.size());
+        try (RunFile.Writer writer = RunFile.writer(output)) {
+            PriorityQueue<RunFile.Reader> queue = new PriorityQueue<>(
+                    Comparator.comparingInt((RunFile.Reader reader) -> reader.peek().id));
+            for (Path input : inputs) {
+                RunFile.Reader reader = RunFile.reader(input);
+                readers.add(reader);
+                if (reader.peek() != null) {
+                    queue.add(reader);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                RunFile.Reader reader = queue.poll();
+                writer.writeUnique(reader.next());
+                if (reader.peek() != null) {
+                    queue.add(reader);
+                }
+            }
+        } finally {
+            for (RunFile.Reader reader : readers) {
+                reader.close();
+            }
+        }
+
+        for (Path input : inputs) {
+            Files.deleteIfExists(input);
+        }
+        return output;
+    }
+
+    private static int[] sortedRows(UserColumns columns) {
+        long[] keys = new long[columns.size()];
+        for (int row = 0; row < keys.length; row++) {
+            keys[row] = ((long) columns.getId(row) << 32) | row;
+        }
+        Arrays.sort(keys);
+
+        int[] rows = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            rows[i] = (int) keys[i];
+        }
+        return rows;
+    }
+
+    private static class RunIterator implements Iterator<UserSearchResponse.User>, Closeable {
+        private final RunFile.Reader reader;
+        private boolean closed;
+
+        private RunIterator(RunFile.Reader reader) {
+            this.reader = reader;
+            closeIfExhausted();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return reader.peek() != null;
+        }
+
+        @Override
+        public UserSearchResponse.User next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                UserSearchResponse.User user = reader.next();
+                closeIfExhausted();
+                return user;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                reader.close();
+            }
+        }
+
+        private void closeIfExhausted() {
+            if (reader.peek() == null) {
+                try {
+                    close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package spill;
+
+import dto.UserSearchResponse;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+final class UserRecordCodec {
+    private static final int CLOSED = 1;
+    private static final int CLOSED_KNOWN = 2;
+    private static final int CAN_ACCESS = 4;
+    private static final int CAN_ACCESS_KNOWN = 8;
+    private static final int HAS_CITY = 16;
+
+    private UserRecordCodec() {
+    }
+
+    static void write(DataOutputStream output, UserSearchResponse.User user) throws IOException {
+        int flags = 0;
+        if (user.is_closed != null) {
+            flags |= CLOSED_KNOWN | (user.is_closed ? CLOSED : 0);
+        }
+        if (user.can_access_closed != null) {
+            flags |= CAN_ACCESS_KNOWN | (user.can_access_closed ? CAN_ACCESS : 0);
+        }
+        if (user.city != null) {
+            flags |= HAS_CITY;
+        }
+
+        output.writeInt(user.id);
+        output.writeByte(flags);
+        writeString(output, user.first_name);
+        writeString(output, user.last_name);
+        if (user.city != null) {
+            output.writeInt(user.city.id != null ? user.city.id : -1);
+            writeString(output, user.city.title);
+        }
+    }
+
+    static UserSearchResponse.User read(DataInputStream input) throws IOException {
+        int id;
+        try {
+            id = input.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        UserSearchResponse.User user = new UserSearchResponse.User();
+        user.id = id;
+        int flags = input.readUnsignedByte();
+        user.first_name = readString(input);
+        user.last_name = readString(input);
+        if ((flags & CLOSED_KNOWN) != 0) {
+            user.is_closed = (flags & CLOSED) != 0;
+        }
+        if ((flags & CAN_ACCESS_KNOWN) != 0) {
+            user.can_access_closed = (flags & CAN_ACCESS) != 0;
+        }
+        if ((flags & HAS_CITY) != 0) {
+            user.city = new UserSearchResponse.User.City();
+            int cityId = input.readInt();
+            user.city.id = cityId >= 0 ? cityId : null;
+            user.city.title = readString(input);
+        }
+        return user;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
@@ -0,0 +1,342 @@
+package store;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dto.VkTypeAdapters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+public class CrawlStore implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(CrawlStore.class);
+    private static final Comparator<RecordHeader> BY_TIMESTAMP = Comparator.comparingLong(RecordHeader::getTimestamp);
+    private static final String MANIFEST_PREFIX = "compaction_";
+
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private final Gson gson;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<EntityType, EntityLog> logs = new EnumMap<>(EntityType.class);
+    private final ScheduledExecutorService compactionExecutor;
+
+    public CrawlStore(String directory, long segmentMaxBytes, long compactionIntervalMinutes) throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.gson = VkTypeAdapters.registerAll(new GsonBuilder()).create();
+
+        for (EntityType type : EntityType.values()) {
+            logs.put(type, openLog(type));
+        }
+
+        this.compactionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crawl-store-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (compactionIntervalMinutes > 0) {
+            compactionExecutor.scheduleWithFixedDelay(this::compactQuietly,
+                    compactionIntervalMinutes, compactionIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    public void append(EntityType type, int key, Object response) throws IOException {
+        append(type, key, gson.toJson(response));
+    }
+
+    public void append(EntityType type, int key, String payload) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        long timestamp = System.currentTimeMillis();
+
+        ByteBuffer record = ByteBuffer.allocate(Segment.HEADER_SIZE + bytes.length);
+        record.putInt(bytes.length).putLong(timestamp).putInt(key).putInt((int) crc.getValue()).put(bytes);
+        record.flip();
+
+        lock.writeLock().lock();
+        try {
+            EntityLog log = logs.get(type);
+            if (log.active.getSize() > 0 && log.active.getSize() + record.remaining() > segmentMaxBytes) {
+                log.active.force();
+                log.active = log.newSegment();
+            }
+            long offset = log.active.append(record);
+            log.addToIndex(new RecordHeader(log.active.getId(), offset, timestamp, key, bytes.length, (int) crc.getValue()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public <T> StoredVersion<T> getLatest(EntityType type, int key, Class<T> valueType) throws IOException {
+        lock.readLock().lock();
+        try {
+            List<RecordHeader> versions = logs.get(type).index.get(key);
+            if (versions == null || versions.isEmpty()) {
+                return null;
+            }
+            return readVersion(type, versions.get(versions.size() - 1), valueType);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public <T> List<StoredVersion<T>> getRange(EntityType type, int key, long fromMs, long toMs,
+                                               Class<T> valueType) throws IOException {
+        lock.readLock().lock();
+        try {
+            List<StoredVersion<T>> result = new ArrayList<>();
+            for (RecordHeader header : logs.get(type).index.getOrDefault(key, List.of())) {
+                if (header.getTimestamp() >= fromMs && header.getTimestamp() <= toMs) {
+                    result.add(readVersion(type, header, valueType));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void compact() throws IOException {
+        for (EntityType type : EntityType.values()) {
+            compact(type);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactionExecutor.shutdownNow();
+        lock.writeLock().lock();
+        try {
+            for (EntityLog log : logs.values()) {
+                log.active.force();
+                for (Segment segment : log.segments.values()) {
+                    segment.close();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> StoredVersion<T> readVersion(EntityType type, RecordHeader header, Class<T> valueType) throws IOException {
+        byte[] payload = logs.get(type).segments.get(header.getSegmentId()).readPayload(header);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != header.getCrc()) {
+            throw new IOException("Поврежденная запись в хранилище " + type + " для ключа " + header.getKey());
+        }
+        return new StoredVersion<>(header.getTimestamp(),
+                gson.fromJson(new String(payload, StandardCharsets.UTF_8), valueType));
+    }
+
+    private EntityLog openLog(EntityType type) throws IOException {
+        Path logDirectory = directory.resolve(type.getDirectoryName());
+        Files.createDirectories(logDirectory);
+        EntityLog log = new EntityLog(logDirectory);
+        recoverCompactions(logDirectory);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(logDirectory, "segment_*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long id = Long.parseLong(name.substring("segment_".length(), name.length() - ".log".length()));
+                log.segments.put(id, Segment.open(file, id));
+            }
+        }
+
+        int records = 0;
+        Iterator<Segment> segments = log.segments.values().iterator();
+        while (segments.hasNext()) {
+            Segment segment = segments.next();
+            List<RecordHeader> headers = segment.scanHeaders();
+            if (headers.isEmpty()) {
+                segments.remove();
+                segment.delete();
+                continue;
+            }
+            for (RecordHeader header : headers) {
+                log.index.computeIfAbsent(header.getKey(), key -> new ArrayList<>()).add(header);
+                records++;
+            }
+        }
+        for (List<RecordHeader> versions : log.index.values()) {
+            versions.sort(BY_TIMESTAMP);
+        }
+
+        log.nextSegmentId = log.segments.isEmpty() ? 1 : log.segments.lastKey() + 1;
+        log.active = log.newSegment();
+
+        logger.info("Хранилище {}: {} сегментов, {} записей, {} ключей",
+                type.getDirectoryName(), log.segments.size() - 1, records, log.index.size());
+        return log;
+    }
+
+    private void recoverCompactions(Path logDirectory) throws IOException {
+        try (DirectoryStream<Path> manifests = Files.newDirectoryStream(logDirectory, MANIFEST_PREFIX + "*.txt")) {
+            for (Path manifest : manifests) {
+                String name = manifest.getFileName().toString();
+                long targetId = Long.parseLong(name.substring(MANIFEST_PREFIX.length(), name.length() - ".txt".length()));
+                if (Files.exists(logDirectory.resolve(Segment.fileName(targetId)))) {
+                    for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                        if (!line.isBlank()) {
+                            Files.deleteIfExists(logDirectory.resolve(Segment.fileName(Long.parseLong(line.trim()))));
+                        }
+                    }
+                    logger.info("Завершено прерванное уплотнение хранилища: сегмент {}", targetId);
+                }
+                Files.delete(manifest);
+            }
+        }
+        try (DirectoryStream<Path> temporary = Files.newDirectoryStream(logDirectory, "*" + Segment.TEMPORARY_SUFFIX)) {
+            for (Path file : temporary) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            logger.warn("Ошибка при уплотнении хранилища: {}", e.getMessage());
+        }
+    }
+
+    private void compact(EntityType type) throws IOException {
+        EntityLog log = logs.get(type);
+        List<Segment> candidates = new ArrayList<>();
+        Segment target;
+
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : log.segments.values()) {
+                if (segment != log.active) {
+                    candidates.add(segment);
+                }
+            }
+            if (candidates.size() < 2) {
+                return;
+            }
+            target = Segment.createTemporary(log.directory, log.nextSegmentId++);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Segment> sources = new HashMap<>();
+        List<RecordHeader> records = new ArrayList<>();
+        for (Segment segment : candidates) {
+            sources.put(segment.getId(), segment);
+            records.addAll(segment.scanHeaders());
+        }
+        records.sort(BY_TIMESTAMP);
+
+        Map<Long, Map<Long, RecordHeader>> relocations = new HashMap<>();
+        Map<Integer, RecordHeader> lastKept = new HashMap<>();
+        int dropped = 0;
+
+        for (RecordHeader header : records) {
+            byte[] payload = sources.get(header.getSegmentId()).readPayload(header);
+            RecordHeader previous = lastKept.get(header.getKey());
+
+            if (previous != null && previous.getCrc() == header.getCrc() && previous.getLength() == header.getLength()
+                    && Arrays.equals(target.readPayload(previous), payload)) {
+                dropped++;
+                continue;
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(Segment.HEADER_SIZE + payload.length);
+            record.putInt(payload.length).putLong(header.getTimestamp()).putInt(header.getKey())
+                    .putInt(header.getCrc()).put(payload);
+            record.flip();
+            RecordHeader relocated = header.relocate(target.getId(), target.append(record));
+
+            lastKept.put(header.getKey(), relocated);
+            relocations.computeIfAbsent(header.getSegmentId(), id -> new HashMap<>()).put(header.getOffset(), relocated);
+        }
+        target.force();
+
+        StringBuilder manifestContent = new StringBuilder();
+        for (Segment segment : candidates) {
+            manifestContent.append(segment.getId()).append('\n');
+        }
+        Path manifest = log.directory.resolve(MANIFEST_PREFIX + target.getId() + ".txt");
+        Path manifestTemp = log.directory.resolve(manifest.getFileName() + Segment.TEMPORARY_SUFFIX);
+        Files.write(manifestTemp, manifestContent.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(manifestTemp, manifest, StandardCopyOption.ATOMIC_MOVE);
+
+        lock.writeLock().lock();
+        try {
+            target = target.publish();
+            log.segments.put(target.getId(), target);
+            for (List<RecordHeader> versions : log.index.values()) {
+                ListIterator<RecordHeader> iterator = versions.listIterator();
+                while (iterator.hasNext()) {
+                    RecordHeader header = iterator.next();
+                    if (!sources.containsKey(header.getSegmentId())) {
+                        continue;
+                    }
+                    RecordHeader relocated = relocations.getOrDefault(header.getSegmentId(), Map.of())
+                            .get(header.getOffset());
+                    if (relocated != null) {
+                        iterator.set(relocated);
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+
+            for (Segment segment : candidates) {
+                log.segments.remove(segment.getId());
+                segment.delete();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Files.delete(manifest);
+
+        logger.info("Уплотнение хранилища {}: {} сегментов -> 1, удалено {} неизмененных версий",
+                type.getDirectoryName(), candidates.size(), dropped);
+    }
+
+    private static class EntityLog {
+        private final Path directory;
+        private final TreeMap<Long, Segment> segments = new TreeMap<>();
+        private final Map<Integer, List<RecordHeader>> index = new HashMap<>();
+        private Segment active;
+        private long nextSegmentId;
+
+        EntityLog(Path directory) {
+            this.directory = directory;
+        }
+
+        Segment newSegment() throws IOException {
+            Segment segment = Segment.create(directory, nextSegmentId++);
+            segments.put(segment.getId(), segment);
+            return segment;
+        }
+
+        void addToIndex(RecordHeader header) {
+            List<RecordHeader> versions = index.computeIfAbsent(header.getKey(), key -> new ArrayList<>());
+            int position = versions.size();
+            while (position > 0 && versions.get(position - 1).getTimestamp() > header.getTimestamp()) {
+                position--;
+            }
+            versions.add(position, header);
+        }
+    }
+}
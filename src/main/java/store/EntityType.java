@@ -0,0 +1,27 @@
+package store;
+
+import dto.FriendsResponse;
+import dto.GroupsResponse;
+import dto.WallResponse;
+
+public enum EntityType {
+    FRIENDS("friends", FriendsResponse.class),
+    GROUPS("groups", GroupsResponse.class),
+    POSTS("posts", WallResponse.class);
+
+    private final String directoryName;
+    private final Class<?> responseType;
+
+    EntityType(String directoryName, Class<?> responseType) {
+        this.directoryName = directoryName;
+        this.responseType = responseType;
+    }
+
+    public String getDirectoryName() {
+        return directoryName;
+    }
+
+    public Class<?> getResponseType() {
+        return responseType;
+    }
+}
@@ -0,0 +1,47 @@
+package store;
+
+class RecordHeader {
+    private final long segmentId;
+    private final long offset;
+    private final long timestamp;
+    private final int key;
+    private final int length;
+    private final int crc;
+
+    RecordHeader(long segmentId, long offset, long timestamp, int key, int length, int crc) {
+        this.segmentId = segmentId;
+        this.offset = offset;
+        this.timestamp = timestamp;
+        this.key = key;
+        this.length = length;
+        this.crc = crc;
+    }
+
+    long getSegmentId() {
+        return segmentId;
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    int getKey() {
+        return key;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    int getCrc() {
+        return crc;
+    }
+
+    RecordHeader relocate(long newSegmentId, long newOffset) {
+        return new RecordHeader(newSegmentId, newOffset, timestamp, key, length, crc);
+    }
+}
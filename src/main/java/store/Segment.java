@@ -0,0 +1,140 @@
+package store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+class Segment implements Closeable {
+    static final int HEADER_SIZE = 20;
+    static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private long size;
+
+    private Segment(long id, Path path, FileChannel channel, long size) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    static Segment create(Path directory, long id) throws IOException {
+        Path path = directory.resolve(fileName(id));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(id, path, channel, 0);
+    }
+
+    static Segment createTemporary(Path directory, long id) throws IOException {
+        Path path = directory.resolve(fileName(id) + TEMPORARY_SUFFIX);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(id, path, channel, 0);
+    }
+
+    static Segment open(Path path, long id) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(id, path, channel, channel.size());
+    }
+
+    static String fileName(long id) {
+        return String.format("segment_%010d.log", id);
+    }
+
+    long getId() {
+        return id;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    synchronized long append(ByteBuffer record) throws IOException {
+        long offset = size;
+        while (record.hasRemaining()) {
+            size += channel.write(record, size);
+        }
+        return offset;
+    }
+
+    List<RecordHeader> scanHeaders() throws IOException {
+        List<RecordHeader> headers = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long position = 0;
+        long fileSize = channel.size();
+
+        while (position + HEADER_SIZE <= fileSize) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            long timestamp = header.getLong();
+            int key = header.getInt();
+            int crc = header.getInt();
+            if (length < 0 || position + HEADER_SIZE + length > fileSize) {
+                break;
+            }
+            headers.add(new RecordHeader(id, position, timestamp, key, length, crc));
+            position += HEADER_SIZE + length;
+        }
+
+        if (position < fileSize) {
+            channel.truncate(position);
+        }
+        synchronized (this) {
+            size = position;
+        }
+        return headers;
+    }
+
+    byte[] readPayload(RecordHeader header) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(header.getLength());
+        readFully(payload, header.getOffset() + HEADER_SIZE);
+        return payload.array();
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    Segment publish() throws IOException {
+        Path target = path.resolveSibling(fileName(id));
+        Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+        return new Segment(id, target, channel, getSize());
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Неожиданный конец сегмента " + path);
+            }
+            position += read;
+        }
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package store;
+
+import java.util.Date;
+
+public class StoredVersion<T> {
+    private final long timestamp;
+    private final T value;
+
+    public StoredVersion(long timestamp, T value) {
+        this.timestamp = timestamp;
+        this.value = value;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Date getDate() {
+        return new Date(timestamp);
+    }
+
+    public T getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,117 @@
+package text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SpaceSaving {
+    private final int capacity;
+    private final String[] terms;
+    private final long[] counts;
+    private final long[] errors;
+    private final int[] heap;
+    private final int[] heapPositions;
+    private final Map<String, Integer> slots;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.terms = new String[this.capacity];
+        this.counts = new long[this.capacity];
+        this.errors = new long[this.capacity];
+        this.heap = new int[this.capacity];
+        this.heapPositions = new int[this.capacity];
+        this.slots = new HashMap<>(this.capacity * 2);
+    }
+
+    public void offer(String term) {
+        Integer slot = slots.get(term);
+        if (slot != null) {
+            counts[slot]++;
+            siftDown(heapPositions[slot]);
+            return;
+        }
+
+        if (size < capacity) {
+            int newSlot = size++;
+            terms[newSlot] = term;
+            counts[newSlot] = 1;
+            errors[newSlot] = 0;
+            heap[newSlot] = newSlot;
+            heapPositions[newSlot] = newSlot;
+            slots.put(term, newSlot);
+            siftUp(newSlot);
+            return;
+        }
+
+        int minSlot = heap[0];
+        slots.remove(terms[minSlot]);
+        terms[minSlot] = term;
+        errors[minSlot] = counts[minSlot];
+        counts[minSlot]++;
+        slots.put(term, minSlot);
+        siftDown(0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<TermFrequency> top(int limit) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingLong(slot -> counts[slot]).reversed()
+                .thenComparing(slot -> terms[slot]));
+
+        List<TermFrequency> result = new ArrayList<>(Math.min(limit, size));
+        for (int i = 0; i < size && i < limit; i++) {
+            int slot = order[i];
+            result.add(new TermFrequency(terms[slot], counts[slot], errors[slot]));
+        }
+        return result;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[heap[parent]] <= counts[heap[position]]) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int left = position * 2 + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && counts[heap[right]] < counts[heap[left]]) {
+                smallest = right;
+            }
+            if (counts[heap[position]] <= counts[heap[smallest]]) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int slotA = heap[a];
+        int slotB = heap[b];
+        heap[a] = slotB;
+        heap[b] = slotA;
+        heapPositions[slotB] = a;
+        heapPositions[slotA] = b;
+    }
+}
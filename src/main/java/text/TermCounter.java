@@ -0,0 +1,65 @@
+package text;
+
+public class TermCounter {
+    private static final long EMPTY = 0L;
+
+    private final long[] keys;
+    private final int[] counts;
+    private final int mask;
+    private final int maxSize;
+    private int size;
+    private long dropped;
+
+    public TermCounter(int maxTerms) {
+        int capacity = Integer.highestOneBit(Math.max(16, maxTerms) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.counts = new int[capacity];
+        this.mask = capacity - 1;
+        this.maxSize = Math.max(1, maxTerms);
+    }
+
+    public boolean increment(long hash) {
+        long key = hash == EMPTY ? 1L : hash;
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                counts[index]++;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+
+        if (size >= maxSize) {
+            dropped++;
+            return false;
+        }
+        keys[index] = key;
+        counts[index] = 1;
+        size++;
+        return true;
+    }
+
+    public int get(long hash) {
+        long key = hash == EMPTY ? 1L : hash;
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return counts[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isSaturated() {
+        return size >= maxSize;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
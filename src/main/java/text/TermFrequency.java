@@ -0,0 +1,25 @@
+package text;
+
+public class TermFrequency {
+    private final String term;
+    private final long count;
+    private final long error;
+
+    public TermFrequency(String term, long count, long error) {
+        this.term = term;
+        this.count = count;
+        this.error = error;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getError() {
+        return error;
+    }
+}
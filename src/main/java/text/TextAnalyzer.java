@@ -0,0 +1,61 @@
+package text;
+
+import sketch.Hashing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class TextAnalyzer {
+    private static final long HASHTAG_SALT = 0x9e3779b97f4a7c15L;
+
+    private final Tokenizer tokenizer;
+    private final SpaceSaving terms;
+    private final SpaceSaving hashtags;
+    private final TermCounter counter;
+    private final TokenListener listener = this::onToken;
+    private long posts;
+    private long tokens;
+
+    public TextAnalyzer(int minTermLength, int sketchCapacity, int counterCapacity) {
+        this.tokenizer = new Tokenizer(minTermLength);
+        this.terms = new SpaceSaving(sketchCapacity);
+        this.hashtags = new SpaceSaving(sketchCapacity);
+        this.counter = new TermCounter(counterCapacity);
+    }
+
+    public synchronized void accept(String text) {
+        posts++;
+        tokenizer.tokenize(text, listener);
+    }
+
+    public synchronized TextReport buildReport(int topN) {
+        return new TextReport(posts, tokens, counter.size(), counter.isSaturated(),
+                exactTop(terms, topN, false), exactTop(hashtags, topN, true));
+    }
+
+    private void onToken(String token, boolean hashtag) {
+        tokens++;
+        counter.increment(hash(token, hashtag));
+        if (hashtag) {
+            hashtags.offer(token);
+        } else {
+            terms.offer(token);
+        }
+    }
+
+    private List<TermFrequency> exactTop(SpaceSaving sketch, int topN, boolean hashtag) {
+        List<TermFrequency> result = new ArrayList<>();
+        for (TermFrequency candidate : sketch.top(topN)) {
+            int exact = counter.get(hash(candidate.getTerm(), hashtag));
+            result.add(exact >= 0 ? new TermFrequency(candidate.getTerm(), exact, 0) : candidate);
+        }
+        result.sort(Comparator.comparingLong(TermFrequency::getCount).reversed());
+        return result;
+    }
+
+    private static long hash(String token, boolean hashtag) {
+        long hash = Hashing.hashString(token);
+        return hashtag ? Hashing.mix64(hash ^ HASHTAG_SALT) : hash;
+    }
+}
@@ -0,0 +1,46 @@
+package text;
+
+import java.util.List;
+
+public class TextReport {
+    private final long posts;
+    private final long tokens;
+    private final int distinctTerms;
+    private final boolean approximate;
+    private final List<TermFrequency> topTerms;
+    private final List<TermFrequency> topHashtags;
+
+    public TextReport(long posts, long tokens, int distinctTerms, boolean approximate,
+                      List<TermFrequency> topTerms, List<TermFrequency> topHashtags) {
+        this.posts = posts;
+        this.tokens = tokens;
+        this.distinctTerms = distinctTerms;
+        this.approximate = approximate;
+        this.topTerms = topTerms;
+        this.topHashtags = topHashtags;
+    }
+
+    public long getPosts() {
+        return posts;
+    }
+
+    public long getTokens() {
+        return tokens;
+    }
+
+    public int getDistinctTerms() {
+        return distinctTerms;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public List<TermFrequency> getTopTerms() {
+        return topTerms;
+    }
+
+    public List<TermFrequency> getTopHashtags() {
+        return topHashtags;
+    }
+}
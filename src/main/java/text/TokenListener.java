@@ -0,0 +1,5 @@
+package text;
+
+public interface TokenListener {
+    void onToken(String token, boolean hashtag);
+}
@@ -0,0 +1,74 @@
+package text;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class Tokenizer {
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "и", "в", "во", "не", "что", "он", "на", "я", "с", "со", "как", "а", "то", "все", "она", "так",
+            "его", "но", "да", "ты", "к", "у", "же", "вы", "за", "бы", "по", "только", "ее", "мне", "было",
+            "вот", "от", "меня", "еще", "нет", "о", "из", "ему", "теперь", "когда", "даже", "ну", "вдруг",
+            "ли", "если", "уже", "или", "ни", "быть", "был", "него", "до", "вас", "нибудь", "опять", "уж",
+            "вам", "ведь", "там", "потом", "себя", "ничего", "ей", "может", "они", "тут", "где", "есть",
+            "надо", "ней", "для", "мы", "тебя", "их", "чем", "была", "сам", "чтоб", "без", "будто", "чего",
+            "раз", "тоже", "себе", "под", "будет", "тогда", "кто", "этот", "того", "потому", "этого",
+            "какой", "совсем", "ним", "здесь", "этом", "один", "почти", "мой", "тем", "чтобы", "нее",
+            "сейчас", "были", "куда", "зачем", "всех", "никогда", "можно", "при", "наконец", "два", "об",
+            "другой", "хоть", "после", "над", "больше", "тот", "через", "эти", "нас", "про", "всего",
+            "них", "какая", "много", "разве", "три", "эту", "моя", "впрочем", "хорошо", "свою", "этой",
+            "перед", "иногда", "лучше", "чуть", "том", "нельзя", "такой", "им", "более", "всегда",
+            "конечно", "всю", "между", "это", "наш", "наши", "вас", "ваш", "свой", "очень",
+            "the", "and", "for", "you", "with", "that", "this", "are", "was", "not", "but", "have",
+            "from", "http", "https", "www", "com"));
+
+    private final int minLength;
+    private final StringBuilder buffer = new StringBuilder();
+
+    public Tokenizer(int minLength) {
+        this.minLength = Math.max(1, minLength);
+    }
+
+    public void tokenize(String text, TokenListener listener) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        boolean hashtag = false;
+        boolean digitsOnly = true;
+        buffer.setLength(0);
+
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c) || (c == '_' && hashtag && buffer.length() > 0)) {
+                char lower = Character.toLowerCase(c);
+                buffer.append(lower == 'ё' ? 'е' : lower);
+                digitsOnly &= Character.isDigit(c);
+                continue;
+            }
+
+            if (buffer.length() > 0) {
+                emit(listener, hashtag, digitsOnly);
+                buffer.setLength(0);
+            }
+            hashtag = c == '#';
+            digitsOnly = true;
+        }
+    }
+
+    private void emit(TokenListener listener, boolean hashtag, boolean digitsOnly) {
+        if (hashtag) {
+            if (buffer.length() >= 2) {
+                listener.onToken(buffer.toString(), true);
+            }
+            return;
+        }
+        if (digitsOnly || buffer.length() < minLength) {
+            return;
+        }
+        String token = buffer.toString();
+        if (!STOP_WORDS.contains(token)) {
+            listener.onToken(token, false);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package timeline;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+public class ActivityTimeSeries {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final BucketSize bucketSize;
+    private final ZoneId zone;
+    private long newestBucket;
+    private int size;
+    private int[] posts = new int[INITIAL_CAPACITY];
+    private long[] likes = new long[INITIAL_CAPACITY];
+    private long[] reposts = new long[INITIAL_CAPACITY];
+    private long[] comments = new long[INITIAL_CAPACITY];
+    private long[] textLength = new long[INITIAL_CAPACITY];
+
+    public ActivityTimeSeries(BucketSize bucketSize, ZoneId zone) {
+        this.bucketSize = bucketSize;
+        this.zone = zone;
+    }
+
+    public void add(long epochSeconds, int postLikes, int postReposts, int postComments, int postTextLength) {
+        long bucket = bucketSize.bucketOf(epochSeconds, zone);
+        if (size == 0) {
+            newestBucket = bucket;
+            size = 1;
+        } else if (bucket > newestBucket) {
+            shift((int) (bucket - newestBucket));
+            newestBucket = bucket;
+        }
+
+        int index = (int) (newestBucket - bucket);
+        if (index >= size) {
+            ensureCapacity(index + 1);
+            size = index + 1;
+        }
+
+        posts[index]++;
+        likes[index] += postLikes;
+        reposts[index] += postReposts;
+        comments[index] += postComments;
+        textLength[index] += postTextLength;
+    }
+
+    public BucketSize getBucketSize() {
+        return bucketSize;
+    }
+
+    public int getBucketCount() {
+        return size;
+    }
+
+    public LocalDate getBucketStart(int index) {
+        return bucketSize.startOf(newestBucket - index);
+    }
+
+    public int getPosts(int index) {
+        return posts[index];
+    }
+
+    public long getLikes(int index) {
+        return likes[index];
+    }
+
+    public long getReposts(int index) {
+        return reposts[index];
+    }
+
+    public long getComments(int index) {
+        return comments[index];
+    }
+
+    public long getTextLength(int index) {
+        return textLength[index];
+    }
+
+    private void shift(int offset) {
+        ensureCapacity(size + offset);
+        System.arraycopy(posts, 0, posts, offset, size);
+        System.arraycopy(likes, 0, likes, offset, size);
+        System.arraycopy(reposts, 0, reposts, offset, size);
+        System.arraycopy(comments, 0, comments, offset, size);
+        System.arraycopy(textLength, 0, textLength, offset, size);
+        Arrays.fill(posts, 0, offset, 0);
+        Arrays.fill(likes, 0, offset, 0L);
+        Arrays.fill(reposts, 0, offset, 0L);
+        Arrays.fill(comments, 0, offset, 0L);
+        Arrays.fill(textLength, 0, offset, 0L);
+        size += offset;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= posts.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, posts.length * 2);
+        posts = Arrays.copyOf(posts, newCapacity);
+        likes = Arrays.copyOf(likes, newCapacity);
+        reposts = Arrays.copyOf(reposts, newCapacity);
+        comments = Arrays.copyOf(comments, newCapacity);
+        textLength = Arrays.copyOf(textLength, newCapacity);
+    }
+}
@@ -0,0 +1,35 @@
+package timeline;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+public enum BucketSize {
+    DAY("day"),
+    WEEK("week");
+
+    private final String label;
+
+    BucketSize(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long bucketOf(long epochSeconds, ZoneId zone) {
+        long epochDay = Instant.ofEpochSecond(epochSeconds).atZone(zone).toLocalDate().toEpochDay();
+        if (this == WEEK) {
+            return Math.floorDiv(epochDay + 3, 7);
+        }
+        return epochDay;
+    }
+
+    public LocalDate startOf(long bucket) {
+        if (this == WEEK) {
+            return LocalDate.ofEpochDay(bucket * 7 - 3);
+        }
+        return LocalDate.ofEpochDay(bucket);
+    }
+}
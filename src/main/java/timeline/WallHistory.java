@@ -0,0 +1,56 @@
+package timeline;
+
+import java.time.ZoneId;
+
+public class WallHistory {
+    private final int userId;
+    private final ActivityTimeSeries daily;
+    private final ActivityTimeSeries weekly;
+    private int totalPosts;
+    private int processedPosts;
+    private boolean reachedCutoff;
+
+    public WallHistory(int userId, ZoneId zone) {
+        this.userId = userId;
+        this.daily = new ActivityTimeSeries(BucketSize.DAY, zone);
+        this.weekly = new ActivityTimeSeries(BucketSize.WEEK, zone);
+    }
+
+    void add(long epochSeconds, int likes, int reposts, int comments, int textLength) {
+        daily.add(epochSeconds, likes, reposts, comments, textLength);
+        weekly.add(epochSeconds, likes, reposts, comments, textLength);
+        processedPosts++;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public ActivityTimeSeries getDaily() {
+        return daily;
+    }
+
+    public ActivityTimeSeries getWeekly() {
+        return weekly;
+    }
+
+    public int getTotalPosts() {
+        return totalPosts;
+    }
+
+    void setTotalPosts(int totalPosts) {
+        this.totalPosts = totalPosts;
+    }
+
+    public int getProcessedPosts() {
+        return processedPosts;
+    }
+
+    public boolean isReachedCutoff() {
+        return reachedCutoff;
+    }
+
+    void setReachedCutoff(boolean reachedCutoff) {
+        this.reachedCutoff = reachedCutoff;
+    }
+}
@@ -0,0 +1,87 @@
+package timeline;
+
+import dto.WallResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import service.RequestPriority;
+import service.RequestScheduler;
+import service.VkApiService;
+import text.TextAnalyzer;
+
+import java.time.ZoneId;
+
+public class WallHistoryCrawler {
+    private static final Logger logger = LoggerFactory.getLogger(WallHistoryCrawler.class);
+    private static final int WALL_GET_MAX_COUNT = 100;
+
+    private final VkApiService vkApiService;
+    private final int pageSize;
+    private final ZoneId zone;
+    private TextAnalyzer textAnalyzer;
+
+    public WallHistoryCrawler(VkApiService vkApiService, int pageSize, ZoneId zone) {
+        this.vkApiService = vkApiService;
+        this.pageSize = Math.max(1, Math.min(pageSize, WALL_GET_MAX_COUNT));
+        this.zone = zone;
+    }
+
+    public void setTextAnalyzer(TextAnalyzer textAnalyzer) {
+        this.textAnalyzer = textAnalyzer;
+    }
+
+    public WallHistory crawl(int userId, long cutoffEpochSeconds) throws Exception {
+        WallHistory history = new WallHistory(userId, zone);
+        int offset = 0;
+        int lastPostId = Integer.MAX_VALUE;
+
+        while (true) {
+            int pageOffset = offset;
+            WallResponse page = RequestScheduler.call(RequestPriority.BULK, 0,
+                    () -> vkApiService.getWall(userId, pageOffset, pageSize));
+            if (page == null || page.response == null || page.response.items == null
+                    || page.response.items.isEmpty()) {
+                break;
+            }
+            history.setTotalPosts(page.response.count != null ? page.response.count : 0);
+
+            for (WallResponse.Post post : page.response.items) {
+                boolean pinned = post.is_pinned != null && post.is_pinned != 0;
+                if (post.date == null || post.id == null) {
+                    continue;
+                }
+                if (!pinned) {
+                    if (post.date < cutoffEpochSeconds) {
+                        history.setReachedCutoff(true);
+                        break;
+                    }
+                    if (post.id >= lastPostId) {
+                        continue;
+                    }
+                    lastPostId = post.id;
+                } else if (post.date < cutoffEpochSeconds) {
+                    continue;
+                }
+
+                history.add(post.date,
+                        post.likes != null && post.likes.count != null ? post.likes.count : 0,
+                        post.reposts != null && post.reposts.count != null ? post.reposts.count : 0,
+                        post.comments != null && post.comments.count != null ? post.comments.count : 0,
+                        post.text != null ? post.text.length() : 0);
+                if (textAnalyzer != null) {
+                    textAnalyzer.accept(post.text);
+                }
+            }
+
+            offset += page.response.items.size();
+            if (history.isReachedCutoff() || page.response.items.size() < pageSize
+                    || offset >= history.getTotalPosts()) {
+                break;
+            }
+        }
+
+        logger.info("История стены пользователя {}: {} из {} постов, {} дней, {} недель", userId,
+                history.getProcessedPosts(), history.getTotalPosts(),
+                history.getDaily().getBucketCount(), history.getWeekly().getBucketCount());
+        return history;
+    }
+}
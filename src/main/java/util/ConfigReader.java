@@ -19,6 +19,14 @@ public class ConfigReader {
         }
     }
 
+    public static void setProperty(String key, String value) {
+        properties.setProperty(key, value);
+    }
+
+    public static String getApiUrl() {
+        return properties.getProperty("vk.api.url", "https://api.vk.com/method/");
+    }
+
     public static String getToken() {
         return properties.getProperty("vk.api.token");
     }
@@ -55,6 +63,54 @@ public class ConfigReader {
         return isTestMode() ? getTestUsersCount() : getFullUsersCount();
     }
 
+    public static boolean isSearchPartitionEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("search.partition.enabled", "true"));
+    }
+
+    public static int getSearchPartitionAgeFrom() {
+        return Integer.parseInt(properties.getProperty("search.partition.age.from", "14"));
+    }
+
+    public static int getSearchPartitionAgeTo() {
+        return Integer.parseInt(properties.getProperty("search.partition.age.to", "80"));
+    }
+
+    public static boolean isRankingBatched() {
+        return Boolean.parseBoolean(properties.getProperty("ranking.batched", "true"));
+    }
+
+    public static int getRankingTopN() {
+        return Integer.parseInt(properties.getProperty("ranking.top.n", "5"));
+    }
+
+    public static long getRankingTimeBudgetMs() {
+        return Long.parseLong(properties.getProperty("ranking.time.budget.seconds", "60")) * 1000;
+    }
+
+    public static long getRankingRequestBudget() {
+        return Long.parseLong(properties.getProperty("ranking.request.budget", "0"));
+    }
+
+    public static boolean isPipelineEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("pipeline.enabled", "false"));
+    }
+
+    public static int getPipelineSearchQueueCapacity() {
+        return Integer.parseInt(properties.getProperty("pipeline.search.queue.capacity", "200"));
+    }
+
+    public static int getPipelineRankThreads() {
+        return Integer.parseInt(properties.getProperty("pipeline.rank.threads", "3"));
+    }
+
+    public static int getPipelineRankQueueCapacity() {
+        return Integer.parseInt(properties.getProperty("pipeline.rank.queue.capacity", "50"));
+    }
+
+    public static boolean isPipelineStatisticsEager() {
+        return Boolean.parseBoolean(properties.getProperty("pipeline.statistics.eager", "false"));
+    }
+
     public static int getStatisticsFriendsSample() {
         return Integer.parseInt(properties.getProperty("statistics.friends.sample", "5"));
     }
@@ -63,6 +119,162 @@ public class ConfigReader {
         return Integer.parseInt(properties.getProperty("statistics.posts.count", "10"));
     }
 
+    public static boolean isStatisticsMetricsParallel() {
+        return Boolean.parseBoolean(properties.getProperty("statistics.metrics.parallel", "false"));
+    }
+
+    public static int getStatisticsMetricsThreads() {
+        return Integer.parseInt(properties.getProperty("statistics.metrics.threads", "2"));
+    }
+
+    public static boolean isStatisticsIncrementalEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("statistics.incremental.enabled", "false"));
+    }
+
+    public static long getStatisticsIncrementalMaxAgeHours() {
+        return Long.parseLong(properties.getProperty("statistics.incremental.max.age.hours", "24"));
+    }
+
+    public static boolean isStatisticsIncrementalVerify() {
+        return Boolean.parseBoolean(properties.getProperty("statistics.incremental.verify", "false"));
+    }
+
+    public static String getSnapshotDir() {
+        return properties.getProperty("snapshot.dir", "snapshots");
+    }
+
+    public static boolean isWallHistoryEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("wall.history.enabled", "false"));
+    }
+
+    public static int getWallHistoryDays() {
+        return Integer.parseInt(properties.getProperty("wall.history.days", "365"));
+    }
+
+    public static int getWallHistoryPageSize() {
+        return Integer.parseInt(properties.getProperty("wall.history.page.size", "100"));
+    }
+
+    public static long getMemoryBudgetBytes() {
+        return Long.parseLong(properties.getProperty("memory.budget.mb", "0")) * 1024 * 1024;
+    }
+
+    public static String getSpillDir() {
+        return properties.getProperty("spill.dir", "spill");
+    }
+
+    public static boolean isServerEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("server.enabled", "false"));
+    }
+
+    public static int getServerPort() {
+        return Integer.parseInt(properties.getProperty("server.port", "8080"));
+    }
+
+    public static int getServerThreads() {
+        return Integer.parseInt(properties.getProperty("server.threads", "8"));
+    }
+
+    public static int getServerStatisticsThreads() {
+        return Integer.parseInt(properties.getProperty("server.statistics.threads", "2"));
+    }
+
+    public static int getServerJobThreads() {
+        return Integer.parseInt(properties.getProperty("server.jobs.threads", "1"));
+    }
+
+    public static int getServerMaxJobs() {
+        return Integer.parseInt(properties.getProperty("server.jobs.max", "100"));
+    }
+
+    public static int getServerCacheMaxEntries() {
+        return Integer.parseInt(properties.getProperty("server.cache.max.entries", "1000"));
+    }
+
+    public static long getServerCacheTtlMinutes() {
+        return Long.parseLong(properties.getProperty("server.cache.ttl.minutes", "30"));
+    }
+
+    public static long getServerRequestTimeoutSeconds() {
+        return Long.parseLong(properties.getProperty("server.request.timeout.seconds", "120"));
+    }
+
+    public static boolean isGroupMembersEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("groups.members.enabled", "false"));
+    }
+
+    public static int getGroupMembersMaxCount() {
+        return Integer.parseInt(properties.getProperty("groups.members.max.count", "200000"));
+    }
+
+    public static int getGroupMembersMaxGroups() {
+        return Integer.parseInt(properties.getProperty("groups.members.max.groups", "5"));
+    }
+
+    public static boolean isTextEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("text.enabled", "true"));
+    }
+
+    public static int getTextMinTermLength() {
+        return Integer.parseInt(properties.getProperty("text.min.term.length", "3"));
+    }
+
+    public static int getTextTopN() {
+        return Integer.parseInt(properties.getProperty("text.top.n", "20"));
+    }
+
+    public static int getTextSketchCapacity() {
+        return Integer.parseInt(properties.getProperty("text.sketch.capacity", "1000"));
+    }
+
+    public static int getTextCounterCapacity() {
+        return Integer.parseInt(properties.getProperty("text.counter.capacity", "262144"));
+    }
+
+    public static int getTextUserCounterCapacity() {
+        return Integer.parseInt(properties.getProperty("text.user.counter.capacity", "16384"));
+    }
+
+    public static boolean isStoreEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("store.enabled", "false"));
+    }
+
+    public static String getStoreDir() {
+        return properties.getProperty("store.dir", "crawl-store");
+    }
+
+    public static long getStoreSegmentMaxBytes() {
+        return Long.parseLong(properties.getProperty("store.segment.max.mb", "64")) * 1024 * 1024;
+    }
+
+    public static long getStoreCompactionIntervalMinutes() {
+        return Long.parseLong(properties.getProperty("store.compaction.interval.minutes", "10"));
+    }
+
+    public static boolean isSketchEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("sketch.enabled", "true"));
+    }
+
+    public static int getSketchMinHashSize() {
+        return Integer.parseInt(properties.getProperty("sketch.minhash.size", "128"));
+    }
+
+    public static int getSketchLshBands() {
+        return Integer.parseInt(properties.getProperty("sketch.lsh.bands", "64"));
+    }
+
+    public static int getSketchHllPrecision() {
+        return Integer.parseInt(properties.getProperty("sketch.hll.precision", "14"));
+    }
+
+    public static double getSketchSimilarityThreshold() {
+        return Double.parseDouble(properties.getProperty("sketch.similarity.threshold", "0.3"));
+    }
+
+    public static int getSketchSampleUsers() {
+        return Integer.parseInt(properties.getProperty("sketch.sample.users", "20"));
+    }
+
     public static String getLoggingLevel() {
         return properties.getProperty("logging.level", "INFO");
     }
@@ -79,6 +291,75 @@ public class ConfigReader {
         return Boolean.parseBoolean(properties.getProperty("export.csv.enabled", "false"));
     }
 
+    public static boolean isProgressEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("progress.enabled", "true"));
+    }
+
+    public static long getProgressReportSeconds() {
+        return Long.parseLong(properties.getProperty("progress.report.seconds", "10"));
+    }
+
+    public static int getProgressWindowSeconds() {
+        return Integer.parseInt(properties.getProperty("progress.window.seconds", "30"));
+    }
+
+    public static int getExportWriterThreads() {
+        return Integer.parseInt(properties.getProperty("export.writer.threads", "2"));
+    }
+
+    public static int getExportBufferKb() {
+        return Integer.parseInt(properties.getProperty("export.buffer.kb", "64"));
+    }
+
+    public static double getRequestRatePerSecond() {
+        return Double.parseDouble(properties.getProperty("request.rate.per.second", "3"));
+    }
+
+    public static int getRequestParallelism() {
+        return Integer.parseInt(properties.getProperty("request.parallelism", "3"));
+    }
+
+    public static double getSchedulerWeight(String priority) {
+        String defaultWeight = "interactive".equals(priority) ? "8" : "normal".equals(priority) ? "4" : "1";
+        return Double.parseDouble(properties.getProperty("scheduler.weight." + priority, defaultWeight));
+    }
+
+    public static long getRequestTimeoutSeconds() {
+        return Long.parseLong(properties.getProperty("request.timeout.seconds", "30"));
+    }
+
+    public static boolean isRequestHedgingEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("request.hedging.enabled", "false"));
+    }
+
+    public static double getRequestHedgingPercentile() {
+        return Double.parseDouble(properties.getProperty("request.hedging.percentile", "0.95"));
+    }
+
+    public static long getRequestHedgingMinDelayMs() {
+        return Long.parseLong(properties.getProperty("request.hedging.min.delay.ms", "100"));
+    }
+
+    public static double getRequestHedgingMaxRatio() {
+        return Double.parseDouble(properties.getProperty("request.hedging.max.ratio", "0.1"));
+    }
+
+    public static int getCircuitFailureThreshold() {
+        return Integer.parseInt(properties.getProperty("circuit.failure.threshold", "5"));
+    }
+
+    public static long getCircuitOpenSeconds() {
+        return Long.parseLong(properties.getProperty("circuit.open.seconds", "30"));
+    }
+
+    public static boolean isStatisticsFriendsHydrateEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("statistics.friends.hydrate", "true"));
+    }
+
+    public static int getStatisticsFriendsHydrateMax() {
+        return Integer.parseInt(properties.getProperty("statistics.friends.hydrate.max", "200"));
+    }
+
     public static int getRequestMaxRetries() {
         return Integer.parseInt(properties.getProperty("request.max.retries", "3"));
     }
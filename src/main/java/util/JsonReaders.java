@@ -0,0 +1,37 @@
+package util;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+public final class JsonReaders {
+    private JsonReaders() {
+    }
+
+    public static boolean skipNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    public static String nextString(JsonReader reader) throws IOException {
+        return skipNull(reader) ? null : reader.nextString();
+    }
+
+    public static Integer nextInteger(JsonReader reader) throws IOException {
+        return skipNull(reader) ? null : reader.nextInt();
+    }
+
+    public static Boolean nextBoolean(JsonReader reader) throws IOException {
+        if (skipNull(reader)) {
+            return null;
+        }
+        if (reader.peek() == JsonToken.NUMBER) {
+            return reader.nextInt() != 0;
+        }
+        return reader.nextBoolean();
+    }
+}
@@ -0,0 +1,129 @@
+package util;
+
+import java.util.Arrays;
+
+public class SortedIntSet {
+    private static final SortedIntSet EMPTY = new SortedIntSet(new int[0]);
+
+    private final int[] values;
+
+    private SortedIntSet(int[] values) {
+        this.values = values;
+    }
+
+    public static SortedIntSet empty() {
+        return EMPTY;
+    }
+
+    public static SortedIntSet of(int[] values) {
+        Builder builder = new Builder(values.length);
+        builder.addAll(values, values.length);
+        return builder.build();
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public int countAtMost(int value) {
+        int index = Arrays.binarySearch(values, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    public int intersectionSize(SortedIntSet other) {
+        SortedIntSet small = size() <= other.size() ? this : other;
+        SortedIntSet large = small == this ? other : this;
+        if (small.size() == 0) {
+            return 0;
+        }
+
+        if ((long) small.size() * 32 < large.size()) {
+            int count = 0;
+            int from = 0;
+            for (int value : small.values) {
+                int index = Arrays.binarySearch(large.values, from, large.values.length, value);
+                if (index >= 0) {
+                    count++;
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+                if (from >= large.values.length) {
+                    break;
+                }
+            }
+            return count;
+        }
+
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < small.values.length && j < large.values.length) {
+            int a = small.values[i];
+            int b = large.values[j];
+            if (a == b) {
+                count++;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    public static class Builder {
+        private int[] values;
+        private int size;
+
+        public Builder() {
+            this(1024);
+        }
+
+        public Builder(int expectedSize) {
+            this.values = new int[Math.max(16, expectedSize)];
+        }
+
+        public synchronized void add(int value) {
+            ensureCapacity(size + 1);
+            values[size++] = value;
+        }
+
+        public synchronized void addAll(int[] source, int length) {
+            ensureCapacity(size + length);
+            System.arraycopy(source, 0, values, size, length);
+            size += length;
+        }
+
+        public synchronized int size() {
+            return size;
+        }
+
+        public synchronized SortedIntSet build() {
+            Arrays.sort(values, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || values[i] != values[unique - 1]) {
+                    values[unique++] = values[i];
+                }
+            }
+            return new SortedIntSet(Arrays.copyOf(values, unique));
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+            }
+        }
+    }
+}